@@ -0,0 +1,98 @@
+package chess;
+
+/**
+ * Class holding the attack masks of the pieces which do not slide, i.e.
+ * Knight, King and the capturing moves of the Pawn, along with the masks
+ * of the lines joining two squares. The masks are computed once when the
+ * class is loaded, so finding the squares such a piece attacks is a single
+ * array lookup. Squares are BitBoard square indexes.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+final class AttackTables {
+
+	/**
+	 * Squares attacked by a knight kept on each square.
+	 */
+	static final long[] KNIGHT_ATTACKS = new long[BitBoard.SQUARES];
+
+	/**
+	 * Squares attacked by a king kept on each square.
+	 */
+	static final long[] KING_ATTACKS = new long[BitBoard.SQUARES];
+
+	/**
+	 * Squares attacked by a pawn kept on each square, indexed first by the
+	 * player index of the pawn owner (BLACK or WHITE).
+	 */
+	static final long[][] PAWN_ATTACKS = new long[BitBoard.PLAYERS.length][BitBoard.SQUARES];
+
+	/**
+	 * Squares strictly between two squares on the same row, col or diagonal,
+	 * 0 if the squares are not aligned.
+	 */
+	static final long[][] BETWEEN = new long[BitBoard.SQUARES][BitBoard.SQUARES];
+
+	/**
+	 * Squares of the whole row, col or diagonal going through two aligned
+	 * squares (both included), 0 if the squares are not aligned.
+	 */
+	static final long[][] LINE = new long[BitBoard.SQUARES][BitBoard.SQUARES];
+
+	static {
+		int[] knightRows = { 1, 1, -1, -1, 2, 2, -2, -2 };
+		int[] knightCols = { 2, -2, 2, -2, 1, -1, 1, -1 };
+		int[] kingRows = { 1, 1, 1, 0, 0, -1, -1, -1 };
+		int[] kingCols = { 1, 0, -1, 1, -1, 1, 0, -1 };
+
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			int row = BitBoard.row(square);
+			int col = BitBoard.col(square);
+			for (int i = 0; i < knightRows.length; i++) {
+				KNIGHT_ATTACKS[square] |= bit(row + knightRows[i], col + knightCols[i]);
+				KING_ATTACKS[square] |= bit(row + kingRows[i], col + kingCols[i]);
+			}
+			// White pawns move towards row 0, black pawns towards row 7.
+			PAWN_ATTACKS[BitBoard.WHITE][square] = bit(row - 1, col - 1) | bit(row - 1, col + 1);
+			PAWN_ATTACKS[BitBoard.BLACK][square] = bit(row + 1, col - 1) | bit(row + 1, col + 1);
+
+			// Walk the 8 rays, the line of a ray also covers the opposite ray.
+			for (int i = 0; i < kingRows.length; i++) {
+				long line = 1L << square;
+				for (int step = 1; bit(row + step * kingRows[i], col + step * kingCols[i]) != 0; step++) {
+					line |= bit(row + step * kingRows[i], col + step * kingCols[i]);
+				}
+				for (int step = 1; bit(row - step * kingRows[i], col - step * kingCols[i]) != 0; step++) {
+					line |= bit(row - step * kingRows[i], col - step * kingCols[i]);
+				}
+
+				long between = 0;
+				for (int step = 1; bit(row + step * kingRows[i], col + step * kingCols[i]) != 0; step++) {
+					int target = BitBoard.square(row + step * kingRows[i], col + step * kingCols[i]);
+					BETWEEN[square][target] = between;
+					LINE[square][target] = line;
+					between |= 1L << target;
+				}
+			}
+		}
+	}
+
+	/**
+	 * No instances, only static tables.
+	 */
+	private AttackTables() {
+	}
+
+	/**
+	 * Method to get the mask of a grid position
+	 * @param row
+	 * @param col
+	 * @return mask with the bit of the square, 0 if position is off the board
+	 */
+	private static long bit(int row, int col) {
+		if (row < 0 || row >= BitBoard.SIDE || col < 0 || col >= BitBoard.SIDE) {
+			return 0L;
+		}
+		return 1L << BitBoard.square(row, col);
+	}
+}
@@ -0,0 +1,842 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Class representing the pieces of a chess position as bitboards.
+ * Every piece type of every player is kept as one 64 bit mask in which
+ * bit n is set when the piece is present on square n. Squares are
+ * numbered row by row in the same order as the ChessBoard grid, so
+ * square 0 is a8 (row 0, col 0) and square 63 is h1 (row 7, col 7).
+ * Occupancy masks per player and for the whole board are kept in sync
+ * so that queries need a single mask test instead of walking the cells.
+ * Besides the pieces, the bitboard keeps the side to move, the castling
+ * rights, the en passant square and the move counters, so that a move can be made and
+ * unmade in place without copying the board, and a Zobrist key of the
+ * position which every change of the position updates incrementally.
+ * The sums of the evaluation tables and the game phase (see Evaluation)
+ * are updated the same way, so a position is scored without a board scan.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class BitBoard {
+
+	/**
+	 * Number of rows and cols on the board.
+	 */
+	static final int SIDE = 8;
+
+	/**
+	 * Number of squares on the board.
+	 */
+	static final int SQUARES = SIDE * SIDE;
+
+	/**
+	 * Piece code of an empty square.
+	 */
+	static final int NO_PIECE = -1;
+
+	/**
+	 * Square index used when there is no en passant square.
+	 */
+	static final int NO_SQUARE = SQUARES;
+
+	/**
+	 * Player index of black, same as Player ordinal.
+	 */
+	static final int BLACK = 0;
+
+	/**
+	 * Player index of white, same as Player ordinal.
+	 */
+	static final int WHITE = 1;
+
+	/**
+	 * Piece type index of the rook, same as PieceType ordinal.
+	 */
+	static final int ROOK = 0;
+
+	/**
+	 * Piece type index of the knight, same as PieceType ordinal.
+	 */
+	static final int KNIGHT = 1;
+
+	/**
+	 * Piece type index of the bishop, same as PieceType ordinal.
+	 */
+	static final int BISHOP = 2;
+
+	/**
+	 * Piece type index of the queen, same as PieceType ordinal.
+	 */
+	static final int QUEEN = 3;
+
+	/**
+	 * Piece type index of the king, same as PieceType ordinal.
+	 */
+	static final int KING = 4;
+
+	/**
+	 * Piece type index of the pawn, same as PieceType ordinal.
+	 */
+	static final int PAWN = 5;
+
+	/**
+	 * Castling right of white on the king side.
+	 */
+	static final int WHITE_KING_SIDE = 1;
+
+	/**
+	 * Castling right of white on the queen side.
+	 */
+	static final int WHITE_QUEEN_SIDE = 2;
+
+	/**
+	 * Castling right of black on the king side.
+	 */
+	static final int BLACK_KING_SIDE = 4;
+
+	/**
+	 * Castling right of black on the queen side.
+	 */
+	static final int BLACK_QUEEN_SIDE = 8;
+
+	/**
+	 * All the castling rights, as at the start of the game.
+	 */
+	static final int ALL_CASTLING = 15;
+
+	/**
+	 * Initial row of the pawns of each player, indexed by player ordinal. A
+	 * pawn never comes back to it, so a pawn there has not moved yet.
+	 */
+	static final long[] PAWN_START = { 0xFFL << SIDE, 0xFFL << (SQUARES - 2 * SIDE) };
+
+	/**
+	 * Halfmove clock at which the game is drawn by the fifty move rule.
+	 */
+	static final int FIFTY_MOVE_PLIES = 100;
+
+	/**
+	 * Number of distinct piece codes (6 types for each of 2 players).
+	 */
+	static final int PIECE_CODES = 12;
+
+	/**
+	 * Cached enum values, to avoid cloning the values array on every lookup.
+	 */
+	static final PieceType[] TYPES = PieceType.values();
+
+	/**
+	 * Cached enum values, to avoid cloning the values array on every lookup.
+	 */
+	static final Player[] PLAYERS = Player.values();
+
+	/**
+	 * Castling rights which survive a move from or to a square. Moving the
+	 * king or a rook from its initial square, or capturing a rook there,
+	 * loses the matching rights.
+	 */
+	private static final int[] CASTLING_MASK = new int[SQUARES];
+
+	static {
+		Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+		CASTLING_MASK[square(0, 0)] &= ~BLACK_QUEEN_SIDE;
+		CASTLING_MASK[square(0, 4)] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+		CASTLING_MASK[square(0, 7)] &= ~BLACK_KING_SIDE;
+		CASTLING_MASK[square(7, 0)] &= ~WHITE_QUEEN_SIDE;
+		CASTLING_MASK[square(7, 4)] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+		CASTLING_MASK[square(7, 7)] &= ~WHITE_KING_SIDE;
+	}
+
+	/**
+	 * One mask per piece code, indexed by {@link #pieceCode(PieceType, Player)}.
+	 */
+	private final long[] pieces;
+
+	/**
+	 * One occupancy mask per player, indexed by Player ordinal.
+	 */
+	private final long[] colors;
+
+	/**
+	 * Occupancy of the whole board.
+	 */
+	private long occupied;
+
+	/**
+	 * Index of the player who makes the next move (BLACK or WHITE).
+	 */
+	private int side;
+
+	/**
+	 * Castling rights still available, combination of the castling flags.
+	 */
+	private int castling;
+
+	/**
+	 * Square a pawn can be captured on en passant, NO_SQUARE if none.
+	 */
+	private int enPassant;
+
+	/**
+	 * Number of plies since the last capture or pawn move (halfmove clock).
+	 */
+	private int halfmoveClock;
+
+	/**
+	 * Number of the current move, starting at 1 and incremented after each
+	 * move of black.
+	 */
+	private int fullmoveNumber;
+
+	/**
+	 * Zobrist key of the position, see Zobrist.
+	 */
+	private long key;
+
+	/**
+	 * Sum of the middlegame scores of the pieces, white minus black.
+	 */
+	private int midgame;
+
+	/**
+	 * Sum of the endgame scores of the pieces, white minus black.
+	 */
+	private int endgame;
+
+	/**
+	 * Sum of the phase weights of the pieces.
+	 */
+	private int phase;
+
+	/**
+	 * Create an empty bitboard with white to move and no castling rights.
+	 */
+	public BitBoard() {
+		pieces = new long[PIECE_CODES];
+		colors = new long[PLAYERS.length];
+		occupied = 0L;
+		side = WHITE;
+		castling = 0;
+		enPassant = NO_SQUARE;
+		halfmoveClock = 0;
+		fullmoveNumber = 1;
+		key = 0L;
+		midgame = 0;
+		endgame = 0;
+		phase = 0;
+	}
+
+	/**
+	 * Method to create a copy of another bitboard.
+	 * @param other
+	 */
+	public BitBoard(BitBoard other) {
+		pieces = other.pieces.clone();
+		colors = other.colors.clone();
+		occupied = other.occupied;
+		side = other.side;
+		castling = other.castling;
+		enPassant = other.enPassant;
+		halfmoveClock = other.halfmoveClock;
+		fullmoveNumber = other.fullmoveNumber;
+		key = other.key;
+		midgame = other.midgame;
+		endgame = other.endgame;
+		phase = other.phase;
+	}
+
+	/**
+	 * Method to remove all the pieces and reset the state to an empty
+	 * board with white to move, no castling rights and no en passant square.
+	 */
+	void clear() {
+		Arrays.fill(pieces, 0L);
+		Arrays.fill(colors, 0L);
+		occupied = 0L;
+		side = WHITE;
+		castling = 0;
+		enPassant = NO_SQUARE;
+		halfmoveClock = 0;
+		fullmoveNumber = 1;
+		key = 0L;
+		midgame = 0;
+		endgame = 0;
+		phase = 0;
+	}
+
+	/**
+	 * Method to create the position at the start of a game: pieces on
+	 * ranks 1, 2, 7 and 8, white to move and all castling rights.
+	 * @return new bitboard of the initial position
+	 */
+	public static BitBoard initialPosition() {
+		BitBoard board = new BitBoard();
+		PieceType[] backRank = { PieceType.R, PieceType.N, PieceType.B, PieceType.Q, PieceType.K, PieceType.B,
+				PieceType.N, PieceType.R };
+		for (int col = 0; col < SIDE; col++) {
+			board.putPiece(square(0, col), backRank[col], Player.Black);
+			board.putPiece(square(1, col), PieceType.p, Player.Black);
+			board.putPiece(square(SIDE - 2, col), PieceType.p, Player.White);
+			board.putPiece(square(SIDE - 1, col), backRank[col], Player.White);
+		}
+		board.setCastlingRights(ALL_CASTLING);
+		return board;
+	}
+
+	/**
+	 * Method to convert a grid row/col into a square index.
+	 * @param row Row from 0 to SIDE-1
+	 * @param col Col from 0 to SIDE-1
+	 * @return square index from 0 to SQUARES-1
+	 */
+	static int square(int row, int col) {
+		return row * SIDE + col;
+	}
+
+	/**
+	 * Getter for the grid row of a square
+	 * @param square square index from 0 to SQUARES-1
+	 * @return row from 0 to SIDE-1
+	 */
+	static int row(int square) {
+		return square >>> 3;
+	}
+
+	/**
+	 * Getter for the grid col of a square
+	 * @param square square index from 0 to SQUARES-1
+	 * @return col from 0 to SIDE-1
+	 */
+	static int col(int square) {
+		return square & 7;
+	}
+
+	/**
+	 * Method to get the code of a piece, which is used to index the masks.
+	 * @param type
+	 * @param owner
+	 * @return piece code from 0 to PIECE_CODES-1
+	 */
+	static int pieceCode(PieceType type, Player owner) {
+		return owner.ordinal() * TYPES.length + type.ordinal();
+	}
+
+	/**
+	 * Getter for the piece type of a piece code
+	 * @param piece valid piece code
+	 * @return type of the piece
+	 */
+	static PieceType typeOf(int piece) {
+		return TYPES[piece % TYPES.length];
+	}
+
+	/**
+	 * Getter for the owner of a piece code
+	 * @param piece valid piece code
+	 * @return owner of the piece
+	 */
+	static Player ownerOf(int piece) {
+		return PLAYERS[piece / TYPES.length];
+	}
+
+	/**
+	 * Method to put a piece on an empty square.
+	 * Precondition: the square is not occupied.
+	 * @param square
+	 * @param piece valid piece code
+	 */
+	void putPiece(int square, int piece) {
+		long bit = 1L << square;
+		pieces[piece] |= bit;
+		colors[piece / TYPES.length] |= bit;
+		occupied |= bit;
+		key ^= Zobrist.PIECE_SQUARE[piece][square];
+		midgame += Evaluation.MIDGAME[piece][square];
+		endgame += Evaluation.ENDGAME[piece][square];
+		phase += Evaluation.PHASE[piece];
+	}
+
+	/**
+	 * Method to put a piece on an empty square.
+	 * Precondition: the square is not occupied.
+	 * @param square
+	 * @param type
+	 * @param owner
+	 */
+	public void putPiece(int square, PieceType type, Player owner) {
+		putPiece(square, pieceCode(type, owner));
+	}
+
+	/**
+	 * Method to remove the piece kept on a square
+	 * @param square
+	 * @return code of the removed piece, NO_PIECE if square was empty
+	 */
+	int removePiece(int square) {
+		int piece = pieceAt(square);
+		if (piece != NO_PIECE) {
+			long bit = ~(1L << square);
+			pieces[piece] &= bit;
+			colors[piece / TYPES.length] &= bit;
+			occupied &= bit;
+			key ^= Zobrist.PIECE_SQUARE[piece][square];
+			midgame -= Evaluation.MIDGAME[piece][square];
+			endgame -= Evaluation.ENDGAME[piece][square];
+			phase -= Evaluation.PHASE[piece];
+		}
+		return piece;
+	}
+
+	/**
+	 * Method to find the piece kept on a square
+	 * @param square
+	 * @return code of the piece, NO_PIECE if square is empty
+	 */
+	int pieceAt(int square) {
+		long bit = 1L << square;
+		if ((occupied & bit) == 0) {
+			return NO_PIECE;
+		}
+		int first = (colors[0] & bit) != 0 ? 0 : TYPES.length;
+		for (int piece = first; piece < first + TYPES.length; piece++) {
+			if ((pieces[piece] & bit) != 0) {
+				return piece;
+			}
+		}
+		return NO_PIECE;
+	}
+
+	/**
+	 * Method to check if a square contains a piece
+	 * @param square
+	 * @return true if square is occupied
+	 */
+	public boolean isOccupied(int square) {
+		return (occupied & (1L << square)) != 0;
+	}
+
+	/**
+	 * Method to get the owner of the piece on a square
+	 * @param square
+	 * @return The player object if a piece is present else null
+	 */
+	public Player ownerAt(int square) {
+		long bit = 1L << square;
+		if ((occupied & bit) == 0) {
+			return null;
+		}
+		return (colors[0] & bit) != 0 ? PLAYERS[0] : PLAYERS[1];
+	}
+
+	/**
+	 * Getter for the mask of a piece code
+	 * @param piece valid piece code
+	 * @return mask of the squares holding the piece
+	 */
+	long getPieces(int piece) {
+		return pieces[piece];
+	}
+
+	/**
+	 * Getter for the mask of a piece type of a player
+	 * @param type
+	 * @param owner
+	 * @return mask of the squares holding the piece
+	 */
+	public long getPieces(PieceType type, Player owner) {
+		return pieces[pieceCode(type, owner)];
+	}
+
+	/**
+	 * Getter for the occupancy of a player
+	 * @param owner
+	 * @return mask of the squares holding the pieces of owner
+	 */
+	public long getOccupancy(Player owner) {
+		return colors[owner.ordinal()];
+	}
+
+	/**
+	 * Getter for the occupancy of a player
+	 * @param color BLACK or WHITE
+	 * @return mask of the squares holding the pieces of the player
+	 */
+	long getOccupancy(int color) {
+		return colors[color];
+	}
+
+	/**
+	 * Getter for the occupancy of the whole board
+	 * @return mask of the squares holding any piece
+	 */
+	public long getOccupied() {
+		return occupied;
+	}
+
+	/**
+	 * Method to check if a square is attacked by a player. Instead of
+	 * generating the moves of the player, it looks outward from the square
+	 * with the attack pattern of each kind of piece and stops on the first
+	 * attacker found.
+	 * @param square target square
+	 * @param byPlayer attacking player
+	 * @return true if any piece of byPlayer attacks the square
+	 */
+	public boolean isSquareAttacked(int square, Player byPlayer) {
+		return isSquareAttacked(square, byPlayer.ordinal());
+	}
+
+	/**
+	 * Method to check if a square is attacked by a player
+	 * @param square target square
+	 * @param by index of the attacking player
+	 * @return true if any piece of the player attacks the square
+	 */
+	boolean isSquareAttacked(int square, int by) {
+		int first = by * TYPES.length;
+		// A pawn attacks the square if a pawn of the other color kept on the
+		// square would attack the pawn, same for the other pieces.
+		if ((AttackTables.PAWN_ATTACKS[by ^ 1][square] & pieces[first + PAWN]) != 0
+				|| (AttackTables.KNIGHT_ATTACKS[square] & pieces[first + KNIGHT]) != 0
+				|| (AttackTables.KING_ATTACKS[square] & pieces[first + KING]) != 0) {
+			return true;
+		}
+		long queens = pieces[first + QUEEN];
+		return (SlidingAttacks.rookAttacks(square, occupied) & (pieces[first + ROOK] | queens)) != 0
+				|| (SlidingAttacks.bishopAttacks(square, occupied) & (pieces[first + BISHOP] | queens)) != 0;
+	}
+
+	/**
+	 * Method to check if a player has a pawn next to a pawn which just moved
+	 * two rows, so that it could capture it en passant
+	 * @param square square behind the pawn which moved
+	 * @param by index of the capturing player
+	 * @return true if a pawn of the player attacks the square
+	 */
+	boolean canCaptureEnPassant(int square, int by) {
+		return (AttackTables.PAWN_ATTACKS[by ^ 1][square] & pieces[by * TYPES.length + PAWN]) != 0;
+	}
+
+	/**
+	 * Method to find all the pieces of a player attacking a square
+	 * @param square target square
+	 * @param by index of the attacking player
+	 * @param occupied occupancy to use for the sliders, pieces missing in it
+	 * 	are not reported either
+	 * @return mask of the attacking pieces
+	 */
+	long attackersTo(int square, int by, long occupied) {
+		int first = by * TYPES.length;
+		long queens = pieces[first + QUEEN];
+		long attackers = (AttackTables.PAWN_ATTACKS[by ^ 1][square] & pieces[first + PAWN])
+				| (AttackTables.KNIGHT_ATTACKS[square] & pieces[first + KNIGHT])
+				| (AttackTables.KING_ATTACKS[square] & pieces[first + KING])
+				| (SlidingAttacks.rookAttacks(square, occupied) & (pieces[first + ROOK] | queens))
+				| (SlidingAttacks.bishopAttacks(square, occupied) & (pieces[first + BISHOP] | queens));
+		return attackers & occupied;
+	}
+
+	/**
+	 * Getter for the square of the king of a player
+	 * @param color BLACK or WHITE
+	 * @return square of the king, NO_SQUARE if the player has no king
+	 */
+	int kingSquare(int color) {
+		long king = pieces[color * TYPES.length + KING];
+		return king == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(king);
+	}
+
+	/**
+	 * Method to check if the king of the side to move is under attack
+	 * @return true if side to move is in check
+	 */
+	public boolean isInCheck() {
+		int king = kingSquare(side);
+		return king != NO_SQUARE && isSquareAttacked(king, side ^ 1);
+	}
+
+	/**
+	 * Getter for the player who makes the next move
+	 * @return White or Black
+	 */
+	public Player getSideToMove() {
+		return PLAYERS[side];
+	}
+
+	/**
+	 * Getter for the index of the player who makes the next move
+	 * @return BLACK or WHITE
+	 */
+	int side() {
+		return side;
+	}
+
+	/**
+	 * Setter for the player who makes the next move
+	 * @param player
+	 */
+	public void setSideToMove(Player player) {
+		if (player.ordinal() != side) {
+			side ^= 1;
+			key ^= Zobrist.BLACK_TO_MOVE;
+		}
+	}
+
+	/**
+	 * Getter for the castling rights
+	 * @return combination of the castling flags
+	 */
+	int getCastlingRights() {
+		return castling;
+	}
+
+	/**
+	 * Setter for the castling rights
+	 * @param rights combination of the castling flags
+	 */
+	void setCastlingRights(int rights) {
+		key ^= Zobrist.CASTLING[castling] ^ Zobrist.CASTLING[rights];
+		castling = rights;
+	}
+
+	/**
+	 * Getter for the en passant square
+	 * @return square behind the pawn which just moved two rows if a pawn can
+	 * capture it, else NO_SQUARE
+	 */
+	int getEnPassantSquare() {
+		return enPassant;
+	}
+
+	/**
+	 * Setter for the en passant square
+	 * @param square square behind a pawn which just moved two rows, or NO_SQUARE
+	 */
+	void setEnPassantSquare(int square) {
+		key ^= Zobrist.enPassant(enPassant) ^ Zobrist.enPassant(square);
+		enPassant = square;
+	}
+
+	/**
+	 * Getter for the number of plies since the last capture or pawn move
+	 * @return halfmove clock, 100 or more allows a draw by the fifty move rule
+	 */
+	int getHalfmoveClock() {
+		return halfmoveClock;
+	}
+
+	/**
+	 * Setter for the number of plies since the last capture or pawn move
+	 * @param plies
+	 */
+	void setHalfmoveClock(int plies) {
+		halfmoveClock = plies;
+	}
+
+	/**
+	 * Getter for the number of the current move
+	 * @return move number, starting at 1
+	 */
+	int getFullmoveNumber() {
+		return fullmoveNumber;
+	}
+
+	/**
+	 * Setter for the number of the current move
+	 * @param number move number, starting at 1
+	 */
+	void setFullmoveNumber(int number) {
+		fullmoveNumber = number;
+	}
+
+	/**
+	 * Getter for the Zobrist key of the position. Two positions with the same
+	 * pieces, side to move, castling rights and en passant square have the
+	 * same key.
+	 * @return 64 bit key of the position
+	 */
+	public long getKey() {
+		return key;
+	}
+
+	/**
+	 * Getter for the middlegame score of the pieces
+	 * @return sum of the middlegame scores, white minus black
+	 */
+	int getMidgameScore() {
+		return midgame;
+	}
+
+	/**
+	 * Getter for the endgame score of the pieces
+	 * @return sum of the endgame scores, white minus black
+	 */
+	int getEndgameScore() {
+		return endgame;
+	}
+
+	/**
+	 * Getter for the game phase
+	 * @return sum of the phase weights of the pieces, see Evaluation
+	 */
+	int getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Method to compute the Zobrist key of the position from scratch, which
+	 * must always be equal to the incrementally updated key.
+	 * @return 64 bit key of the position
+	 */
+	long computeKey() {
+		long result = 0L;
+		for (int piece = 0; piece < PIECE_CODES; piece++) {
+			for (long mask = pieces[piece]; mask != 0; mask &= mask - 1) {
+				result ^= Zobrist.PIECE_SQUARE[piece][Long.numberOfTrailingZeros(mask)];
+			}
+		}
+		result ^= Zobrist.CASTLING[castling] ^ Zobrist.enPassant(enPassant);
+		return side == BLACK ? result ^ Zobrist.BLACK_TO_MOVE : result;
+	}
+
+	/**
+	 * Method to move a piece between two squares, destination must be empty.
+	 * @param from
+	 * @param to
+	 * @param piece code of the piece kept on from
+	 */
+	private void movePiece(int from, int to, int piece) {
+		long bits = (1L << from) | (1L << to);
+		pieces[piece] ^= bits;
+		colors[piece / TYPES.length] ^= bits;
+		occupied ^= bits;
+		key ^= Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to];
+		midgame += Evaluation.MIDGAME[piece][to] - Evaluation.MIDGAME[piece][from];
+		endgame += Evaluation.ENDGAME[piece][to] - Evaluation.ENDGAME[piece][from];
+	}
+
+	/**
+	 * Method to get the square of the pawn captured by an en passant move
+	 * @param move encoded en passant move
+	 * @return square right behind the destination, seen from the mover
+	 */
+	static int enPassantVictim(int move) {
+		// the captured pawn stays on the source row, in the destination col
+		return square(row(Move.from(move)), col(Move.to(move)));
+	}
+
+	/**
+	 * Method to play a move on the board. Nothing is validated here, the
+	 * move must be (pseudo) legal in the current position. Only the state
+	 * which can not be derived back from the move is recorded, so that
+	 * {@link #unmake(int, long)} can revert it without any board copy.
+	 * @param move encoded move
+	 * @return undo information to hand back to unmake
+	 */
+	public long make(int move) {
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int flags = Move.flags(move);
+		int piece = pieceAt(from);
+
+		int captured = NO_PIECE;
+		if (flags == Move.EN_PASSANT) {
+			captured = removePiece(enPassantVictim(move));
+		} else if ((flags & Move.CAPTURE) != 0) {
+			captured = removePiece(to);
+		}
+
+		long undo = (captured + 1) | (castling << 4) | (enPassant << 8) | ((long) halfmoveClock << 16);
+		// Captures and pawn moves can not be taken back, they reset the clock.
+		halfmoveClock = captured != NO_PIECE || piece % TYPES.length == PAWN ? 0 : halfmoveClock + 1;
+		if (side == BLACK) {
+			fullmoveNumber++;
+		}
+
+		movePiece(from, to, piece);
+
+		if ((flags & Move.PROMOTION) != 0) {
+			removePiece(to);
+			putPiece(to, pieceCode(Move.promotionType(move), PLAYERS[side]));
+		} else if (flags == Move.KING_CASTLE) {
+			movePiece(to + 1, to - 1, side * TYPES.length + ROOK);
+		} else if (flags == Move.QUEEN_CASTLE) {
+			movePiece(to - 2, to + 1, side * TYPES.length + ROOK);
+		}
+
+		// The square is only kept when a pawn can capture on it, otherwise the
+		// position is the same as without it and must have the same key.
+		int passed = (from + to) >>> 1;
+		setEnPassantSquare(flags == Move.DOUBLE_PUSH && canCaptureEnPassant(passed, side ^ 1) ? passed : NO_SQUARE);
+		setCastlingRights(castling & CASTLING_MASK[from] & CASTLING_MASK[to]);
+		side ^= 1;
+		key ^= Zobrist.BLACK_TO_MOVE;
+
+		return undo;
+	}
+
+	/**
+	 * Method to pass the turn without moving (null move), which the search
+	 * uses to see if a position is strong enough without a move.
+	 * @return undo information to hand back to unmakeNullMove
+	 */
+	long makeNullMove() {
+		long undo = enPassant | ((long) halfmoveClock << 16);
+		// No repetition goes back across a null move.
+		halfmoveClock = 0;
+		setEnPassantSquare(NO_SQUARE);
+		side ^= 1;
+		key ^= Zobrist.BLACK_TO_MOVE;
+		return undo;
+	}
+
+	/**
+	 * Method to take back a null move made with {@link #makeNullMove()}.
+	 * @param undo undo information returned by makeNullMove
+	 */
+	void unmakeNullMove(long undo) {
+		side ^= 1;
+		key ^= Zobrist.BLACK_TO_MOVE;
+		setEnPassantSquare((int) undo & 127);
+		halfmoveClock = (int) (undo >>> 16);
+	}
+
+	/**
+	 * Method to take back the last move made with {@link #make(int)}.
+	 * @param move the encoded move which was made
+	 * @param undo undo information returned by make
+	 */
+	public void unmake(int move, long undo) {
+		side ^= 1;
+		key ^= Zobrist.BLACK_TO_MOVE;
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int flags = Move.flags(move);
+
+		if ((flags & Move.PROMOTION) != 0) {
+			removePiece(to);
+			putPiece(from, side * TYPES.length + PAWN);
+		} else {
+			movePiece(to, from, pieceAt(to));
+			if (flags == Move.KING_CASTLE) {
+				movePiece(to - 1, to + 1, side * TYPES.length + ROOK);
+			} else if (flags == Move.QUEEN_CASTLE) {
+				movePiece(to + 1, to - 2, side * TYPES.length + ROOK);
+			}
+		}
+
+		int captured = (int) (undo & 15) - 1;
+		if (captured != NO_PIECE) {
+			putPiece(flags == Move.EN_PASSANT ? enPassantVictim(move) : to, captured);
+		}
+
+		setCastlingRights((int) (undo >>> 4) & 15);
+		setEnPassantSquare((int) (undo >>> 8) & 127);
+		halfmoveClock = (int) (undo >>> 16);
+		if (side == BLACK) {
+			fullmoveNumber--;
+		}
+	}
+}
@@ -13,7 +13,9 @@ public class Chess {
 	 * Start point of the chess application
 	 * it prompts the players to enter the move
 	 * and works with ChessBoard class to simulate 
-	 * the game.
+	 * the game. A player can let the computer move
+	 * with "go", e.g. "go movetime 500" or
+	 * "go wtime 60000 btime 60000 winc 1000 binc 1000".
 	 */
 	public static void main(String[] args) {
 		ChessBoard board = new ChessBoard();
@@ -1,10 +1,6 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Stack;
-import java.util.function.Consumer;
-import java.util.function.Predicate;
 
 /**
  * Class to represent a ChessBoard
@@ -21,16 +17,22 @@ public class ChessBoard {
 	 * each row and column of the chess
 	 */
 	private final static int SIDE = 8;
+
+	/**
+	 * Time in milli seconds the computer thinks on a go command without limits.
+	 */
+	private final static long DEFAULT_MOVE_TIME = 1000;
 	
 	/**
 	 * Array of ChessBoard cells.
 	 */
 	private ChessBoardCell cells[][];
-	
+
 	/**
-	 * Stack registering the moves made by different Chesspieces
+	 * Bitboards mirroring the pieces kept on the cells, used for
+	 * occupancy and ownership queries.
 	 */
-	private Stack<ChessPiece> moves;
+	private BitBoard bits;
 	
 	/**
 	 * The player whose turn it is to make the next move
@@ -42,19 +44,58 @@ public class ChessBoard {
 	 */
 	private boolean checkStarted;
 
+	/**
+	 * Number of legal moves of the current player.
+	 */
+	private int legalMoveCount;
+
 	/**
 	 * Member to keep the winner of the game on finalization
 	 */
 	private Player winner;
 	/**
-	 * Flag to keep the game status (Running or completed)
+	 * Member to keep the game status (Running or how it completed)
+	 */
+	private Termination termination;
+	/**
+	 * Flag set once the end of the game was announced
 	 */
-	private boolean playCompleted;
+	private boolean announced;
 	/**
 	 * If last player wants to prompt for Draw to next player
 	 */
 	private boolean drawPrompted;
 
+	/**
+	 * Keys of the positions played before the current one.
+	 */
+	private KeyHistory history;
+
+	/**
+	 * Array reused to receive the generated moves.
+	 */
+	private int[] moveBuffer;
+
+	/**
+	 * Table kept between the searches of the game, created on the first search.
+	 */
+	private TranspositionTable table;
+
+	/**
+	 * Number of threads searching the best move.
+	 */
+	private int searchThreads = 1;
+
+	/**
+	 * Selective features of the searches of the game.
+	 */
+	private final SearchOptions searchOptions = new SearchOptions();
+
+	/**
+	 * Time manager of the running search, null if none.
+	 */
+	private volatile TimeManager runningClock;
+
 	/**
 	 * Create a ChessBoard with a SIDE*SIDE chess cells.
 	 * Each cell alternates in white and black color
@@ -62,7 +103,59 @@ public class ChessBoard {
 	 * placed in the ranks.
 	 */
 	public ChessBoard() {
+		createCells();
+		placePiecesInitially();
+		bits.setCastlingRights(BitBoard.ALL_CASTLING);
+		currentPayer = Player.White;
+		updateStatus();
+	}
+
+	/**
+	 * Create a ChessBoard in the position described by a FEN text, see Fen.
+	 * The castling rights and the en passant square of the text are kept by
+	 * the bitboards, which decide the castling and en passant moves.
+	 * @param fen text of the position
+	 * @throws IllegalArgumentException if the text is not a valid position
+	 */
+	public ChessBoard(String fen) {
+		createCells();
+		Fen.load(fen, bits);
+		placePiecesFromBits();
+	}
+
+	/**
+	 * Create a ChessBoard in a position saved with toCompact, see
+	 * CompactPosition. Like a FEN text, the saved position does not keep
+	 * the earlier positions of the game, so repetitions count from it.
+	 * @param compact bytes of the position
+	 * @throws IllegalArgumentException if the bytes are not a valid position
+	 */
+	public ChessBoard(byte[] compact) {
+		createCells();
+		CompactPosition.load(compact, bits);
+		placePiecesFromBits();
+	}
+
+	/**
+	 * Method to put on the cells the pieces of a position loaded into the
+	 * bitboards, and to take the player to move from it.
+	 */
+	private void placePiecesFromBits() {
+		for (long mask = bits.getOccupied(); mask != 0; mask &= mask - 1) {
+			int square = Long.numberOfTrailingZeros(mask);
+			cells[BitBoard.row(square)][BitBoard.col(square)].putPiece(ChessPiece.of(bits.pieceAt(square)));
+		}
+		currentPayer = bits.getSideToMove();
+		updateStatus();
+	}
+
+	/**
+	 * Method to create the empty cells and the state of a new game.
+	 * Each cell alternates in white and black color.
+	 */
+	private void createCells() {
 		cells = new ChessBoardCell[SIDE][SIDE];
+		bits = new BitBoard();
 
 		// place the required cells.
 		for (int row = 0; row < SIDE; row++) {
@@ -73,13 +166,14 @@ public class ChessBoard {
 				white = !white;
 			}
 		}
-		placePiecesInitially();
-		moves = new Stack<>(); // To track the first moves of the pawns
-		currentPayer = Player.White;
 		checkStarted = false;
-		playCompleted = false;
+		legalMoveCount = 0;
+		termination = Termination.NONE;
+		announced = false;
 		drawPrompted = false;
 		winner = null;
+		moveBuffer = new int[MoveGenerator.MAX_MOVES];
+		history = new KeyHistory();
 	}
 
 	/**
@@ -92,17 +186,17 @@ public class ChessBoard {
 		for (int row : Arrays.asList(0, SIDE - 1)) {
 			Player owner = (row == 0 ? Player.Black : Player.White);
 
-			cells[row][0].putPiece(new ChessPiece(PieceType.R, owner));
-			cells[row][SIDE - 1].putPiece(new ChessPiece(PieceType.R, owner));
+			putPiece(cells[row][0], ChessPiece.of(PieceType.R, owner));
+			putPiece(cells[row][SIDE - 1], ChessPiece.of(PieceType.R, owner));
 
-			cells[row][1].putPiece(new ChessPiece(PieceType.N, owner));
-			cells[row][SIDE - 2].putPiece(new ChessPiece(PieceType.N, owner));
+			putPiece(cells[row][1], ChessPiece.of(PieceType.N, owner));
+			putPiece(cells[row][SIDE - 2], ChessPiece.of(PieceType.N, owner));
 
-			cells[row][2].putPiece(new ChessPiece(PieceType.B, owner));
-			cells[row][SIDE - 3].putPiece(new ChessPiece(PieceType.B, owner));
+			putPiece(cells[row][2], ChessPiece.of(PieceType.B, owner));
+			putPiece(cells[row][SIDE - 3], ChessPiece.of(PieceType.B, owner));
 
-			cells[row][3].putPiece(new ChessPiece(PieceType.Q, owner));
-			cells[row][4].putPiece(new ChessPiece(PieceType.K, owner));
+			putPiece(cells[row][3], ChessPiece.of(PieceType.Q, owner));
+			putPiece(cells[row][4], ChessPiece.of(PieceType.K, owner));
 		}
 
 		// Put pawns on rank 2 and 7
@@ -110,43 +204,22 @@ public class ChessBoard {
 			Player owner = (row == 1 ? Player.Black : Player.White);
 
 			for (int col = 0; col < SIDE; col++) {
-				cells[row][col].putPiece(new ChessPiece(PieceType.p, owner));
+				putPiece(cells[row][col], ChessPiece.of(PieceType.p, owner));
 			}
 		}
 	}
 	
 	/**
-	 * Method to check if a chess Piece exists on a given row/Col
-	 * @param r Row from 0 to SIDE-1
-	 * @param c Col from 0 to SIDE-1
-	 * @return true if chess cell contains a piece
-	 */
-	private boolean isCellOccupied(int r, int c) {
-		return cells[r][c].getPiece() != null;
-	}
-	
-	/**
-	 * method to verify if a given pair of (row, col) is a valid
-	 * position on the board.
-	 * @param row
-	 * @param col
-	 * @return true if position is valid
-	 */
-	private boolean isValid(int row, int col) {
-		return !(row < 0 || row >= SIDE || col < 0 || col >= SIDE);
-	}
-
-	/**
-	 * Method to get the owner of the piece on specifc row/col
-	 * @param row Row from 0 to SIDE-1
-	 * @param col Col from 0 to SIDE-1
-	 * @return The player object if chess piece is present else null
+	 * Method to put a piece on a cell, keeping the bitboards in sync.
+	 * Any piece already kept on the cell is replaced.
+	 * @param cell
+	 * @param piece
 	 */
-	private Player getPlayer(int row, int col) {
-		if (cells[row][col].getPiece() == null) {
-			return null;
-		}
-		return cells[row][col].getPiece().owner;
+	private void putPiece(ChessBoardCell cell, ChessPiece piece) {
+		int square = BitBoard.square(cell.getRow(), cell.getCol());
+		bits.removePiece(square);
+		bits.putPiece(square, piece.symbol, piece.owner);
+		cell.putPiece(piece);
 	}
 
 	/**
@@ -162,155 +235,6 @@ public class ChessBoard {
 		return new Position(rank, file);
 	}
 	
-	/**
-	 * Method which returns all the possible moves which can be made by the 
-	 * piece on the input chessCell.
-	 * @param cell Board cell where piece has been kept
-	 * @return the list of positions where the piece can move legally
-	 */
-	private ArrayList<Position> getValidMoves(ChessBoardCell cell) {
-
-		ArrayList<Position> results = new ArrayList<>();
-		if (cell.getPiece() == null) {
-			return results;
-		}
-
-		Player forPlayer = cell.getPiece().owner;
-
-		// inline lambda to add the position to results.
-		Consumer<Position> addIfUnOccupied = x -> {
-			if (isValid(x.r, x.c) && !isCellOccupied(x.r, x.c)) {
-				results.add(x);
-			}
-		};
-
-		Consumer<Position> addIfUnOccupiedOrOpponent = x -> {
-			if (isValid(x.r, x.c) && (!isCellOccupied(x.r, x.c) || (getPlayer(x.r, x.c) != forPlayer))) {
-				results.add(x);
-			}
-		};
-
-		Consumer<Position> addIfOccupiedByOpponent = x -> {
-			// We can not kill our piece
-			if (isValid(x.r, x.c) && isCellOccupied(x.r, x.c) && getPlayer(x.r, x.c) != forPlayer) {
-				results.add(x);
-			}
-		};
-
-		// returns true if we need to continue, else returns false
-		Predicate<Position> addIfValid = x -> {
-			if (isValid(x.r, x.c) && getPlayer(x.r, x.c) != forPlayer) {
-				results.add(x);
-				return getPlayer(x.r, x.c) == null; // If it is opponent's piece, then we need to stop after.
-			}
-			return false;
-		};
-
-		ChessPiece piece = cell.getPiece();
-
-		int r = cell.getRow();
-		int c = cell.getCol();
-
-		// pawn
-		if (piece.symbol == PieceType.p) {
-			int direction = 1;
-			if (piece.owner == Player.White) {
-				direction = -1;
-			}
-
-			// If this is the first move
-			if (!moves.contains(piece)) {
-				addIfUnOccupied.accept(new Position(r + direction * 2, c));
-			}
-			addIfUnOccupied.accept(new Position(r + direction, c));
-
-			// It can capture diagonally as well if occupied
-			addIfOccupiedByOpponent.accept(new Position(r + direction, c - 1));
-			addIfOccupiedByOpponent.accept(new Position(r + direction, c + 1));
-		}
-
-		// King
-		if (piece.symbol == PieceType.K) {
-
-			// If this is the first move
-			for (int i = -1; i <= 1; i++) {
-				for (int j = -1; j <= 1; j++) {
-					if (!(i == 0 && j == 0)) {
-						addIfValid.test(new Position(r + i, c + j));
-					}
-				}
-			}
-		}
-
-		// Rook or Queen
-		if (piece.symbol == PieceType.R || piece.symbol == PieceType.Q) {
-			// Can not leap over other pieces
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r + i, c))) {
-					break;
-				}
-			}
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r - i, c))) {
-					break;
-				}
-			}
-			for (int j = 1; j < SIDE; j++) {
-				if (!addIfValid.test(new Position(r, c + j))) {
-					break;
-				}
-			}
-			for (int j = 1; j < SIDE; j++) {
-				if (!addIfValid.test(new Position(r, c - j))) {
-					break;
-				}
-			}
-		}
-
-		// Bishop or Queen
-		if (piece.symbol == PieceType.B || piece.symbol == PieceType.Q) {
-			// Can not leap over other pieces
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r + i, c + i))) {
-					break;
-				}
-			}
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r - i, c + i))) {
-					break;
-				}
-			}
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r + i, c - i))) {
-					break;
-				}
-			}
-			for (int i = 1; i < SIDE; i++) {
-				if (!addIfValid.test(new Position(r - i, c - i))) {
-					break;
-				}
-			}
-		}
-
-		// Knight
-		if (piece.symbol == PieceType.N) {
-			// Can leap over other pieces
-
-			for (int i : Arrays.asList(1, 2)) {
-				int j = (i == 1) ? 2 : 1;
-				addIfUnOccupiedOrOpponent.accept(new Position(r + i, c + j));
-				addIfUnOccupiedOrOpponent.accept(new Position(r + i, c - j));
-				addIfUnOccupiedOrOpponent.accept(new Position(r - i, c + j));
-				addIfUnOccupiedOrOpponent.accept(new Position(r - i, c - j));
-			}
-		}
-
-		// Support for En passant
-		results.addAll(getMovesForEnPassant(cell));
-
-		return results;
-	}
-
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -336,7 +260,9 @@ public class ChessBoard {
 	}
 
 	/**
-	 * Method which processes the next command from user.
+	 * Method which processes the next command from user. Besides the
+	 * moves, "draw" and "resign", "go" lets the computer play the move
+	 * within the limits following it, see SearchLimits.parse.
 	 * @param cmd user instruction
 	 */
 	public void processCommand(String cmd) {
@@ -345,13 +271,34 @@ public class ChessBoard {
 		// if it is a draw instruction
 		if (cmd.startsWith("draw")) {
 			if (drawPrompted) {
-				playCompleted = true;
+				termination = Termination.DRAW_AGREED;
 			}
 		}
 		
 		else if (cmd.startsWith("resign")) {
 			winner = (currentPayer == Player.Black ? Player.White : Player.Black);
-			playCompleted = true;
+			termination = Termination.RESIGNATION;
+		}
+
+		else if (cmd.startsWith("go")) {
+			// The computer plays the move of the current player.
+			SearchLimits limits;
+			try {
+				limits = SearchLimits.parse(cmd);
+			} catch (IllegalArgumentException e) {
+				System.out.println("\nIllegal search limits, try again");
+				return;
+			}
+			if (!limits.isBounded(currentPayer)) {
+				limits.moveTime = DEFAULT_MOVE_TIME;
+			}
+			SearchResult result = findBestMove(limits);
+			if (result == null || result.move == Move.NONE) {
+				System.out.println("\nNo move to play");
+				return;
+			}
+			System.out.println(result);
+			processCommand(Move.toString(result.move));
 		}
 
 		else {
@@ -372,14 +319,14 @@ public class ChessBoard {
 	 * @param p
 	 * @return ChessBoard cell object
 	 */
-	private ChessBoardCell getCellAtPosition(Position p) {
+	ChessBoardCell getCellAtPosition(Position p) {
 		return cells[p.r][p.c];
 	}
 	
 	/**
 	 * Method to alternate the turn between players
 	 */
-	private void togglePlayer() {
+	void togglePlayer() {
 		if (currentPayer == Player.Black) {
 			currentPayer = Player.White;
 		} else {
@@ -387,35 +334,13 @@ public class ChessBoard {
 		}
 	}
 	
-	/**
-	 * Method to get a duplicate chessBoardCells backup. It is required for the cases
-	 * where after making some move, we realize that it can put own King under check
-	 * and then would have to revert the board.
-	 * note this method does a deep copy of ChessBoardCells.
-	 * @return Array of Board cells.
-	 */
-	private ChessBoardCell[][] getBackupGrid() {
-		ChessBoardCell[][] backupGrid = new ChessBoardCell[SIDE][SIDE];
-
-		// place the required cells.
-		for (int row = 0; row < SIDE; row++) {
-			for (int col = 0; col < SIDE; col++) {
-				// create copy, so that the composed piece do not
-				// get moved from the original cell
-				backupGrid[row][col] = new ChessBoardCell(cells[row][col]);
-			}
-		}
-
-		return backupGrid;
-	}
-
 	/**
 	 * Method which allows the user to move its piece from one position
 	 * to other.
 	 * @param cmd Command to move file which is like "f1r1 f2r2"
 	 * @return True if the move was successful
 	 */
-	private boolean makeMove(String cmd) {
+	boolean makeMove(String cmd) {
 		String tokens[] = cmd.split("\\s+");
 		Position fromLocation = fileRankToPosition(tokens[0]);
 		Position toLocation = fileRankToPosition(tokens[1]);
@@ -429,290 +354,259 @@ public class ChessBoard {
 		ChessBoardCell startCell = getCellAtPosition(fromLocation);
 		ChessBoardCell destCell = getCellAtPosition(toLocation);
 
-		Player opponent = currentPayer == Player.Black ? Player.White : Player.Black;
-
 		// If there is no piece at the mentioned position
 		// Or the piece do not belong to the current player
 		if (startCell.getPiece() == null || startCell.getPiece().owner != currentPayer) {
 			return false;
 		}
 
-		ArrayList<Position> validMoves = getValidMoves(startCell);
-
-		// Add Support for castling.
-		validMoves.addAll(getMovesForCastling(startCell));
-
-		// System.out.println(validMoves);
-
-		if (!validMoves.contains(toLocation)) {
-			return false;
-		}
-
-		ChessBoardCell[][] backupGrid = getBackupGrid();
-		Stack<ChessPiece> backupMoves = (Stack<ChessPiece>) moves.clone();
-
-		// Now move the piece.
-		boolean isEnPassantMove = false;
-		ChessPiece piece = startCell.getPiece();
-		startCell.removePiece();
-		if(destCell.getPiece() == null
-				&& piece.symbol == PieceType.p
-				&& Math.abs(destCell.getCol()-startCell.getCol()) == 1) {
-			// A pawn can make the cross move only when enPassant move
-			// and cross cell is empty.
-			// In this case, we need to remove the middle piece as well.
-			isEnPassantMove = true;
+		// pawn can only be promoted to queen, rook, bishop, or knight of the same
+		// color.
+		PieceType promotion = PieceType.Q;
+		if (tokens.length == 3) {
+			if (tokens[2].equals("N")) {
+				promotion = PieceType.N;
+			} else if (tokens[2].equals("R")) {
+				promotion = PieceType.R;
+			} else if (tokens[2].equals("B")) {
+				promotion = PieceType.B;
+			}
 		}
-		
-		destCell.putPiece(piece);
-		moves.add(piece);
 
-		if(isEnPassantMove) {
-			cells[startCell.getRow()][destCell.getCol()].removePiece();
+		// The move is checked on the bitboards alone, without generating
+		// the moves of the piece.
+		int move = toMove(startCell, destCell, promotion);
+		if (!MoveGenerator.isPseudoLegal(bits, move)) {
+			return false;
 		}
-		
-		moveRookIfNeeded(piece, startCell, destCell, true);
 
 		// Check if currently we are under check, if yes, then only possible move
 		// will be to get the king unchecked
 
 		// checking if the current move made by us will bring our
-		// own king under attack, then Revert grid.
-		ArrayList<ChessBoardCell> playersKingCell = findCellWithPlayerAndPiece(PieceType.K, currentPayer);
-		if (!playersKingCell.isEmpty()
-				&& getAllPositionForAttack(opponent).contains(playersKingCell.get(0).getCellPosition())) {
+		// own king under attack, then refuse it.
+		if (!MoveGenerator.keepsKingSafe(bits, move)) {
 			System.out.println("King comes under attack, hence reverting");
-			cells = backupGrid;
-			moves = backupMoves;
 			return false;
 		}
 
-		if ((destCell.getRow() == 0 || destCell.getRow() == SIDE - 1) && (piece.symbol == PieceType.p)) {
-
-			// We can promote the pawn at this point.
-			// pawn can only be promoted to queen, rook, bishop, or knight of the same
-			// color.
-			destCell.putPiece(new ChessPiece(PieceType.Q, currentPayer));
-
-			if (tokens.length == 3) {
-				if (tokens[2].equals("N")) {
-					destCell.putPiece(new ChessPiece(PieceType.N, currentPayer));
-				} else if (tokens[2].equals("R")) {
-					destCell.putPiece(new ChessPiece(PieceType.R, currentPayer));
-				} else if (tokens[2].equals("B")) {
-					destCell.putPiece(new ChessPiece(PieceType.B, currentPayer));
-				}
-			}
-		}
+		// Now move the piece.
+		make(move);
 
 		// Check if opponent king is under attack now. (Check)
-		ArrayList<ChessBoardCell> oppponentKingCell = findCellWithPlayerAndPiece(PieceType.K, opponent);
-		if (!oppponentKingCell.isEmpty()
-				&& getAllPositionForAttack(currentPayer).contains(oppponentKingCell.get(0).getCellPosition())) {
-			checkStarted = true;
+		if (checkStarted) {
 			System.out.println("\nCheck");
-		} else {
-			checkStarted = false;
 		}
 
 		return true;
 	}
 
 	/**
-	 * This Method moves the rook in case it needs to be moved as the result
-	 * of castling
-	 * @param piece Piece which has been moved in this round (Should be king 
-	 * 	for castling)
-	 * @param startCell Cell from where Piece started moving
-	 * @param destCell Cell on which Piece has moved
-	 * @param addMoves If we want to track the moves in the stack of moves.
+	 * Method to encode the move of the piece kept on startCell to destCell.
+	 * The kind of move (castling, en passant etc.) is derived from the board.
+	 * @param startCell Cell from where Piece starts moving
+	 * @param destCell Cell on which Piece moves
+	 * @param promotion Piece a pawn reaching the last rank is promoted to
+	 * @return encoded move
 	 */
-	private void moveRookIfNeeded(ChessPiece piece, ChessBoardCell startCell, ChessBoardCell destCell,
-			boolean addMoves) {
-
-		if (piece.symbol == PieceType.K && Math.abs(destCell.getCol() - startCell.getCol()) == 2) {
+	private int toMove(ChessBoardCell startCell, ChessBoardCell destCell, PieceType promotion) {
+		ChessPiece piece = startCell.getPiece();
+		int colShift = destCell.getCol() - startCell.getCol();
+		boolean capture = destCell.getPiece() != null;
+		int flags = capture ? Move.CAPTURE : Move.QUIET;
+
+		if (piece.symbol == PieceType.K && Math.abs(colShift) == 2) {
+			flags = colShift > 0 ? Move.KING_CASTLE : Move.QUEEN_CASTLE;
+		} else if (piece.symbol == PieceType.p) {
+			if (destCell.getRow() == 0 || destCell.getRow() == SIDE - 1) {
+				flags = Move.promotionFlags(promotion, capture);
+			} else if (!capture && Math.abs(colShift) == 1) {
+				// A pawn can make the cross move on an empty cell only
+				// when it is an enPassant move
+				flags = Move.EN_PASSANT;
+			} else if (Math.abs(destCell.getRow() - startCell.getRow()) == 2) {
+				flags = Move.DOUBLE_PUSH;
+			}
+		}
+
+		return Move.of(BitBoard.square(startCell.getRow(), startCell.getCol()),
+				BitBoard.square(destCell.getRow(), destCell.getCol()), flags);
+	}
 
-			// King side castling
-			if (destCell.getCol() > startCell.getCol()) {
-				// Shift rook as well now.
-				ChessBoardCell rookCell = cells[startCell.getRow()][SIDE - 1];
-				ChessPiece rook = rookCell.removePiece();
-				cells[startCell.getRow()][startCell.getCol() + 1].putPiece(rook);
-				if (addMoves) {
-					moves.add(rook);
-				}
-			}
+	/**
+	 * Method to play a move on the cells and bitboards, which update the
+	 * castling rights and the en passant square, and to update the status
+	 * of the game. In case of castling the rook is shifted as well and for
+	 * an en passant move the passed pawn is removed.
+	 * @param move encoded move, which must be legal
+	 */
+	private void make(int move) {
+		ChessBoardCell startCell = cells[BitBoard.row(Move.from(move))][BitBoard.col(Move.from(move))];
+		ChessBoardCell destCell = cells[BitBoard.row(Move.to(move))][BitBoard.col(Move.to(move))];
+		ChessBoardCell captureCell = Move.isEnPassant(move) ? cells[startCell.getRow()][destCell.getCol()] : destCell;
+
+		history.push(bits.getKey());
+		bits.make(move);
+		ChessPiece piece = startCell.removePiece();
+		captureCell.removePiece();
+
+		if (Move.isPromotion(move)) {
+			destCell.putPiece(ChessPiece.of(Move.promotionType(move), piece.owner));
+		} else {
+			destCell.putPiece(piece);
+		}
 
-			// Queen side
-			else {
-				ChessBoardCell rookCell = cells[startCell.getRow()][0];
-				ChessPiece rook = rookCell.removePiece();
-				cells[startCell.getRow()][startCell.getCol() - 1].putPiece(rook);
-				if (addMoves) {
-					moves.add(rook);
-				}
-			}
+		if (Move.isCastle(move)) {
+			// Shift rook as well now.
+			int rookCol = Move.flags(move) == Move.KING_CASTLE ? SIDE - 1 : 0;
+			int rookDestCol = Move.flags(move) == Move.KING_CASTLE ? destCell.getCol() - 1 : destCell.getCol() + 1;
+			ChessPiece rook = cells[startCell.getRow()][rookCol].removePiece();
+			cells[startCell.getRow()][rookDestCol].putPiece(rook);
 		}
+
+		updateStatus();
 	}
 
 	/**
-	 * this method scans the board to find a cell which has a specific kind of piece
-	 * and belongs to specific player.
-	 * @param pieceType Valid piece type of Chess like (K, R, B etc.)
-	 * @param player Player White or black
-	 * @return List of cells having such pieces
+	 * Method to find the legal moves, the check and the end of the game
+	 * of the player to move, once per position, so that asking for the
+	 * status of the game costs nothing.
 	 */
-	ArrayList<ChessBoardCell> findCellWithPlayerAndPiece(PieceType pieceType, Player player) {
-		ArrayList<ChessBoardCell> locs = new ArrayList<>();
-		for (ChessBoardCell[] row : cells) {
-			for (ChessBoardCell cell : row) {
-				if (cell.getPiece() != null && cell.getPiece().symbol == pieceType && cell.getPiece().owner == player) {
-					locs.add(cell);
-				}
-			}
+	private void updateStatus() {
+		legalMoveCount = MoveGenerator.generateLegal(bits, moveBuffer);
+		checkStarted = bits.isInCheck();
+		if (legalMoveCount == 0) {
+			termination = checkStarted ? Termination.CHECKMATE : Termination.STALEMATE;
+			// The player who made the last move wins.
+			winner = checkStarted ? BitBoard.PLAYERS[bits.side() ^ 1] : null;
+		} else if (history.repetitions(bits.getKey(), bits.getHalfmoveClock()) >= 2) {
+			termination = Termination.THREEFOLD_REPETITION;
+		} else if (bits.getHalfmoveClock() >= BitBoard.FIFTY_MOVE_PLIES) {
+			termination = Termination.FIFTY_MOVE_RULE;
 		}
-		return locs;
 	}
 
 	/**
-	 * Method to return all the cells where an attack can be done by the pieces
-	 * of mentioned player
-	 * @param player Player White or black
-	 * @return List of cells where given player can make the attack on opponent
+	 * Getter for the Zobrist key of the current position. The key identifies
+	 * the pieces on the board, the player to move, the castling rights and
+	 * the en passant square, and is updated with every move.
+	 * @return 64 bit key of the position
 	 */
-	private ArrayList<Position> getAllPositionForAttack(Player player) {
-		ArrayList<Position> results = new ArrayList<>();
-
-		for (ChessBoardCell[] row : cells) {
-			for (ChessBoardCell cell : row) {
-				if (cell.getPiece() == null || cell.getPiece().owner != player) {
-					continue;
-				}
-				results.addAll(getValidMoves(cell));
-			}
-		}
-
-		return results;
+	public long getPositionKey() {
+		return bits.getKey();
 	}
 
 	/**
-	 * Method to get the positions for pawn in case if it qualifies for an enPassant
-	 * condition
-	 * @param startCell Cell where pawn is contained
-	 * @return List of cells on which pawn can move as part of EnPassant
+	 * Method to write the current position in the FEN notation, see Fen.
+	 * @return text of the position
 	 */
-	private ArrayList<Position> getMovesForEnPassant(ChessBoardCell startCell) {
-		ArrayList<Position> results = new ArrayList<>();
-
-		Player forPlayer = startCell.getPiece().owner;
-		Player opponent = (forPlayer == Player.Black) ? Player.White : Player.Black;
+	public String toFen() {
+		return Fen.toFen(bits);
+	}
 
-		if (startCell.getPiece().symbol == PieceType.p) {
+	/**
+	 * Method to write the current position in the compact form, see
+	 * CompactPosition, which takes far less memory than a ChessBoard.
+	 * @return bytes of the position
+	 */
+	public byte[] toCompact() {
+		return CompactPosition.toBytes(bits);
+	}
 
-			int direction = 1;
-			if (startCell.getPiece().owner == Player.White) {
-				direction = -1;
-			}
+	/**
+	 * Method to count the leaf nodes of the tree of legal moves from the
+	 * current position up to a depth (perft). The board is not changed.
+	 * @param depth number of moves (plies) to look ahead
+	 * @return number of leaf nodes
+	 */
+	public long perft(int depth) {
+		return new Perft(bits, depth).perft(depth);
+	}
 
-			int row = startCell.getRow();
-			int col = startCell.getCol();
+	/**
+	 * Method to score the current position, see Evaluation. The score is
+	 * kept up to date by every move, so this does not scan the board.
+	 * @return score in centipawns from the point of view of the player to move
+	 */
+	public int evaluate() {
+		return Evaluation.evaluate(bits);
+	}
 
-			if (isValid(row, col - 1) && cells[row][col - 1].getPiece() != null
-					&& cells[row][col - 1].getPiece().symbol == PieceType.p
-					&& cells[row][col - 1].getPiece().owner == opponent && !moves.empty()
-					&& moves.peek() == cells[row][col - 1].getPiece() && isValid(row + direction, col - 1)
-					&& cells[row + direction][col - 1].getPiece() == null) {
-				results.add(new Position(row + direction, col - 1));
-			}
+	/**
+	 * Method to search the best move of the player to move, see Search.
+	 * The board is not changed, the results of the positions searched are
+	 * kept for the next searches of the game.
+	 * @param depth largest number of moves (plies) to look ahead
+	 * @param millis time budget in milli seconds, 0 or less for no limit
+	 * @return best move, its score and the expected line of play
+	 */
+	public SearchResult findBestMove(int depth, long millis) {
+		return findBestMove(SearchLimits.of(depth, millis));
+	}
 
-			if (isValid(row, col + 1) && cells[row][col + 1].getPiece() != null
-					&& cells[row][col + 1].getPiece().symbol == PieceType.p
-					&& cells[row][col + 1].getPiece().owner == opponent && !moves.empty()
-					&& moves.peek() == cells[row][col + 1].getPiece() && isValid(row + direction, col + 1)
-					&& cells[row + direction][col + 1].getPiece() == null) {
-				results.add(new Position(row + direction, col + 1));
-			}
+	/**
+	 * Method to search the best move of the player to move within the
+	 * limits of a game clock, see TimeManager. The search can be stopped
+	 * from another thread with stopSearch().
+	 * @param limits depth, time and nodes to search
+	 * @return best move, its score and the expected line of play
+	 */
+	public SearchResult findBestMove(SearchLimits limits) {
+		if (table == null) {
+			table = new TranspositionTable(Search.HASH_MEGA_BYTES, ReplacementPolicy.DEPTH_PREFERRED);
+		}
+		TimeManager clock = new TimeManager(limits, currentPayer);
+		runningClock = clock;
+		try {
+			if (searchThreads > 1) {
+				return Search.parallelSearch(bits, limits.depth, clock, table, searchThreads, searchOptions,
+						history);
+			}
+			Search search = new Search(bits, table);
+			search.setOptions(searchOptions);
+			search.setHistory(history);
+			return search.search(limits.depth, clock);
+		} finally {
+			runningClock = null;
 		}
-
-		return results;
 	}
 
 	/**
-	 * Method to get the positions for King in case if it qualifies for a castling move
-	 * condition
-	 * @param startCell Cell where King is contained
-	 * @return List of cells on which King can move as part of Castling move
+	 * Method to stop the running search from another thread. It returns
+	 * the best move of its last completed iteration.
 	 */
-	private ArrayList<Position> getMovesForCastling(ChessBoardCell startCell) {
-		ArrayList<Position> results = new ArrayList<>();
-
-		if (checkStarted || startCell.getPiece() == null) {
-			return results;
+	public void stopSearch() {
+		TimeManager clock = runningClock;
+		if (clock != null) {
+			clock.stop();
 		}
+	}
 
-		Player forPlayer = startCell.getPiece().owner;
-		Player opponent = (forPlayer == Player.Black) ? Player.White : Player.Black;
-
-		// Castling can only be performed, if the king and rook both have not moved even
-		// once.
-		if (startCell.getPiece().symbol == PieceType.K && !moves.contains(startCell.getPiece())) {
-			ChessBoardCell king = startCell;
-			ArrayList<ChessBoardCell> rookCell = findCellWithPlayerAndPiece(PieceType.R, forPlayer);
-
-			for (ChessBoardCell rook : rookCell) {
-				if (!moves.contains(rook.getPiece())) {
-
-					boolean isSpaceFree = true;
-					ArrayList<Position> kingMovesPosition = new ArrayList<>();
-
-					// Add king position in move
-					kingMovesPosition.add(new Position(startCell.getRow(), startCell.getCol()));
-					Position destination = null;
-
-					// King side castling
-					if (rook.getCol() > king.getCol()) {
-						for (int i = king.getCol() + 1; i < rook.getCol(); i++) {
-							if (cells[king.getRow()][i].getPiece() != null) {
-								isSpaceFree = false;
-							}
-							kingMovesPosition.add(new Position(king.getRow(), i));
-						}
-						destination = new Position(rook.getRow(), rook.getCol() - 1);
-					}
-					// Queen side castling
-					else {
-						for (int i = rook.getCol() + 1; i < king.getCol(); i++) {
-							if (cells[king.getRow()][i].getPiece() != null) {
-								isSpaceFree = false;
-							}
-
-							// King moves do not cover adjacent square to rook in Queen side castling.
-							if (i != rook.getCol() + 1)
-								kingMovesPosition.add(new Position(king.getRow(), i));
-						}
-						destination = new Position(rook.getRow(), rook.getCol() + 2);
-					}
-
-					if (!isSpaceFree) {
-						continue;
-					}
-
-					ArrayList<Position> positionsUnderAttack = getAllPositionForAttack(opponent);
-
-					// No cell of the move should be under attack
-					ArrayList<Position> intersection = new ArrayList<>(positionsUnderAttack);
-					intersection.retainAll(kingMovesPosition);
-					if (!intersection.isEmpty()) {
-						continue;
-					}
-
-					// It can be a valid move now.
-					results.add(destination);
-				}
-			}
-		}
+	/**
+	 * Getter for the selective features of the searches, which can be
+	 * turned on and off between searches
+	 * @return options used by findBestMove
+	 */
+	public SearchOptions getSearchOptions() {
+		return searchOptions;
+	}
 
-		return results;
+	/**
+	 * Setter for the number of threads searching the best move, which share
+	 * the table of the game.
+	 * @param threads number of threads, at least 1
+	 */
+	public void setSearchThreads(int threads) {
+		this.searchThreads = Math.max(1, threads);
+	}
+
+	/**
+	 * Setter for the table caching the results of the searches of the game,
+	 * to choose its size and replacement policy.
+	 * @param table
+	 */
+	public void setTranspositionTable(TranspositionTable table) {
+		this.table = table;
 	}
 
 	/**
@@ -728,93 +622,62 @@ public class ChessBoard {
 
 	/**
 	 * Method which tells if the game has reached a terminal stage. Game reaches to
-	 * a terminal stage when it is won, draw or resigned.
+	 * a terminal stage when it is won, draw or resigned. A game is drawn when
+	 * the same position comes for the third time (threefold repetition) or
+	 * after fifty moves of each player without a capture or a pawn move.
+	 * The status is kept up to date by every move, so this only reads it.
 	 * @return true if reached to terminal stage
 	 */
 	public boolean hasGameFinalized() {
-		if (playCompleted || (winner != null)) {
-			return true;
+		if (termination == Termination.NONE) {
+			return false;
 		}
-		
-		Player opponent = (currentPayer == Player.Black) ? Player.White : Player.Black;
-		
-		// Flag to check if player has a possible move
-		boolean noMovePossible = true;
-		
-		// current player needs to make some move so that
-		// its king is no longer under attack.
-		for (int row = 0; row < SIDE; row++) {
-			for (int col = 0; col < SIDE; col++) {
-				ChessBoardCell cell = cells[row][col];
-				if (cell.getPiece() == null || cell.getPiece().owner != currentPayer) {
-					continue;
-				}
-
-				ArrayList<Position> validMoves = getValidMoves(cell);
-				
-				if(!validMoves.isEmpty()) {
-					noMovePossible = false;
-				}
-				
-				if(checkStarted) {
-					// we can shift our piece on all these positions
-					// and check if it is possible to save our king.
-					for (Position movedPos : validMoves) {
-						ChessBoardCell[][] backupGrid = getBackupGrid();
-						ChessBoardCell destCell = cells[movedPos.r][movedPos.c];
-						cell = cells[row][col];
-						ChessPiece piece = cell.getPiece();
-						
-						// place the piece
-						destCell.putPiece(piece);
-						cell.removePiece();
-						moves.add(piece);
-	
-						moveRookIfNeeded(piece, cell, destCell, false);
-	
-						boolean underAttack = true;
-	
-						// checking if the current move can save king
-						ArrayList<ChessBoardCell> playersKingCell = findCellWithPlayerAndPiece(PieceType.K, currentPayer);
-						if (!playersKingCell.isEmpty()
-								&& !getAllPositionForAttack(opponent).contains(playersKingCell.get(0).getCellPosition())) {
-							underAttack = false;
-						}
-	
-						// Revert grid now as we do not want to make any change to grid.
-						cells = backupGrid;
-						moves.pop();
-						
-						// We player is under check and has a possible move
-						// to avoid check, then we are good for next turn
-						if (!underAttack) {
-							return false;
-						}
-					}		
-				}
+
+		if (!announced) {
+			announced = true;
+			if (termination == Termination.CHECKMATE) {
+				System.out.println("\nCheckmate");
+			} else if (termination == Termination.THREEFOLD_REPETITION) {
+				System.out.println("\nDraw by threefold repetition");
+			} else if (termination == Termination.FIFTY_MOVE_RULE) {
+				System.out.println("\nDraw by the fifty move rule");
 			}
 		}
-		
-		if(checkStarted) {
-			// If we come here, it means we do not have
-			// a valid response to check.
-			// *** Checkmate
-			// Set that the game is won by the other player
-			winner = opponent;
-			System.out.println("\nCheckmate");
-			return true;
-		}
-		
-		// If no move was possible, it is again a draw game
-		if(noMovePossible) {
-			playCompleted = true;
-			winner = null;
-			return true;
-		}
+		return true;
+	}
 
-		return false;
+	/**
+	 * Getter for the state of the game
+	 * @return NONE while the game goes on, else how it ended
+	 */
+	public Termination getTermination() {
+		return termination;
 	}
-	
+
+	/**
+	 * Getter for the number of legal moves of the player to move
+	 * @return number of legal moves, 0 on checkmate or stalemate
+	 */
+	public int getLegalMoveCount() {
+		return legalMoveCount;
+	}
+
+	/**
+	 * Method to check if the player to move is in check
+	 * @return true if the king of the player to move is under attack
+	 */
+	public boolean isInCheck() {
+		return checkStarted;
+	}
+
+	/**
+	 * Getter for the winner of the game
+	 * @return winner, null while the game goes on or on a draw
+	 */
+	public Player getWinner() {
+		return winner;
+	}
+
 	/**
 	 * Method to print the result of the game
 	 */
@@ -4,10 +4,25 @@ package chess;
  * Class representing a chess piece in the game of chess.
  * A piece has a owner and has a specific chess Symbol
  * such as King, queen, pawn etc.
+ * Pieces can not be changed, so there is one shared instance
+ * for each symbol and owner (12 in all), see of().
  * @author Dev Patel and Eric Chan
  */
 public class ChessPiece {
 
+	/**
+	 * Shared instances, indexed by piece code (see BitBoard.pieceCode).
+	 */
+	private static final ChessPiece[] PIECES = new ChessPiece[BitBoard.PIECE_CODES];
+
+	static {
+		for (Player owner : BitBoard.PLAYERS) {
+			for (PieceType symbol : BitBoard.TYPES) {
+				PIECES[BitBoard.pieceCode(symbol, owner)] = new ChessPiece(symbol, owner);
+			}
+		}
+	}
+
 	/**
 	 * symbol of the piece. Symbol can not be changed once assigned.
 	 */
@@ -23,8 +38,27 @@ public class ChessPiece {
 	 * @param symbol
 	 * @param owner
 	 */
-	public ChessPiece(PieceType symbol, Player owner) {
+	private ChessPiece(PieceType symbol, Player owner) {
 		this.symbol = symbol;
 		this.owner = owner;
 	}
+
+	/**
+	 * Method to get the chesspiece with given symbol and owner
+	 * @param symbol
+	 * @param owner
+	 * @return the shared instance
+	 */
+	public static ChessPiece of(PieceType symbol, Player owner) {
+		return PIECES[BitBoard.pieceCode(symbol, owner)];
+	}
+
+	/**
+	 * Method to get the chesspiece of a piece code
+	 * @param piece valid piece code
+	 * @return the shared instance
+	 */
+	static ChessPiece of(int piece) {
+		return PIECES[piece];
+	}
 }
@@ -0,0 +1,130 @@
+package chess;
+
+/**
+ * Class to write positions in a compact binary form and to read them back,
+ * for keeping many idle games in memory. The form is an array of
+ * {@value #LENGTH} bytes: the 64 squares packed two per byte (4 bits per
+ * square, 0 for an empty square and the piece code plus 1 for a piece,
+ * square 0 in the low bits of byte 0), then one byte with the side to move
+ * (bit 4) and the castling rights (bits 0 to 3), one byte with the en
+ * passant square (NO_SQUARE if none), and the halfmove clock and fullmove
+ * number as two bytes each, high byte first.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public final class CompactPosition {
+
+	/**
+	 * Number of bytes of a position.
+	 */
+	public static final int LENGTH = BitBoard.SQUARES / 2 + 6;
+
+	/**
+	 * Index of the byte with the side to move and the castling rights.
+	 */
+	private static final int STATE = BitBoard.SQUARES / 2;
+
+	/**
+	 * Bit of the state byte set when black is to move.
+	 */
+	private static final int BLACK_TO_MOVE = 16;
+
+	/**
+	 * No instances, only static helpers.
+	 */
+	private CompactPosition() {
+	}
+
+	/**
+	 * Method to write the position of a board
+	 * @param board
+	 * @return new array of LENGTH bytes
+	 */
+	public static byte[] toBytes(BitBoard board) {
+		byte[] data = new byte[LENGTH];
+		for (long mask = board.getOccupied(); mask != 0; mask &= mask - 1) {
+			int square = Long.numberOfTrailingZeros(mask);
+			data[square >>> 1] |= (board.pieceAt(square) + 1) << ((square & 1) << 2);
+		}
+		data[STATE] = (byte) (board.getCastlingRights() | (board.side() == BitBoard.BLACK ? BLACK_TO_MOVE : 0));
+		data[STATE + 1] = (byte) board.getEnPassantSquare();
+		int clock = Math.min(board.getHalfmoveClock(), 0xFFFF);
+		int number = Math.min(board.getFullmoveNumber(), 0xFFFF);
+		data[STATE + 2] = (byte) (clock >>> 8);
+		data[STATE + 3] = (byte) clock;
+		data[STATE + 4] = (byte) (number >>> 8);
+		data[STATE + 5] = (byte) number;
+		return data;
+	}
+
+	/**
+	 * Method to load a position into a board, replacing everything it kept.
+	 * @param data bytes written by toBytes
+	 * @param board board receiving the position
+	 * @throws IllegalArgumentException if the bytes are not a valid position
+	 */
+	public static void load(byte[] data, BitBoard board) {
+		if (data.length != LENGTH) {
+			throw invalid();
+		}
+		board.clear();
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			int piece = ((data[square >>> 1] >>> ((square & 1) << 2)) & 15) - 1;
+			if (piece >= BitBoard.PIECE_CODES) {
+				throw invalid();
+			}
+			if (piece != BitBoard.NO_PIECE) {
+				board.putPiece(square, piece);
+			}
+		}
+		if (Long.bitCount(board.getPieces(BitBoard.pieceCode(PieceType.K, Player.White))) != 1
+				|| Long.bitCount(board.getPieces(BitBoard.pieceCode(PieceType.K, Player.Black))) != 1) {
+			throw invalid();
+		}
+
+		int state = data[STATE];
+		if ((state & ~(BLACK_TO_MOVE | BitBoard.ALL_CASTLING)) != 0) {
+			throw invalid();
+		}
+		if ((state & BLACK_TO_MOVE) != 0) {
+			board.setSideToMove(Player.Black);
+		}
+		board.setCastlingRights(state & Fen.possibleCastling(board));
+
+		// En passant square, on row 2 when white moves and on row 5 when black
+		// moves. It is dropped when no pawn can capture on it, as in make.
+		int enPassant = data[STATE + 1] & 0xFF;
+		if (enPassant != BitBoard.NO_SQUARE) {
+			if (enPassant >= BitBoard.SQUARES
+					|| BitBoard.row(enPassant) != (board.side() == BitBoard.WHITE ? 2 : 5)) {
+				throw invalid();
+			}
+			if (board.canCaptureEnPassant(enPassant, board.side())) {
+				board.setEnPassantSquare(enPassant);
+			}
+		}
+
+		board.setHalfmoveClock((data[STATE + 2] & 0xFF) << 8 | (data[STATE + 3] & 0xFF));
+		board.setFullmoveNumber(Math.max(1, (data[STATE + 4] & 0xFF) << 8 | (data[STATE + 5] & 0xFF)));
+	}
+
+	/**
+	 * Method to create a board from a position
+	 * @param data bytes written by toBytes
+	 * @return new board in the position
+	 * @throws IllegalArgumentException if the bytes are not a valid position
+	 */
+	public static BitBoard toBitBoard(byte[] data) {
+		BitBoard board = new BitBoard();
+		load(data, board);
+		return board;
+	}
+
+	/**
+	 * Method to create the exception thrown for invalid bytes
+	 * @return the exception to throw
+	 */
+	private static IllegalArgumentException invalid() {
+		return new IllegalArgumentException("Invalid compact position");
+	}
+}
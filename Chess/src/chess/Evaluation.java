@@ -0,0 +1,209 @@
+package chess;
+
+/**
+ * Class scoring a position for the search. The score adds the material and
+ * a piece square table bonus of every piece, in centipawns (a pawn is worth
+ * about 100). Both are given for the middlegame and for the endgame, and
+ * the two scores are blended by the game phase, which goes from the
+ * middlegame to the endgame as pieces other than pawns leave the board.
+ * BitBoard keeps the sums of the tables up to date on every change of a
+ * square, so scoring a position reads three ints instead of every piece.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+final class Evaluation {
+
+	/**
+	 * Middlegame value of each piece type in centipawns, indexed by piece
+	 * type ordinal. The king is never captured so it has no value.
+	 */
+	static final int[] MIDGAME_VALUES = { 477, 337, 365, 1025, 0, 82 };
+
+	/**
+	 * Endgame value of each piece type in centipawns, indexed by piece type ordinal.
+	 */
+	static final int[] ENDGAME_VALUES = { 512, 281, 297, 936, 0, 94 };
+
+	/**
+	 * Phase weight of each piece type, indexed by piece type ordinal.
+	 */
+	static final int[] PHASE_WEIGHTS = { 2, 1, 1, 4, 0, 0 };
+
+	/**
+	 * Phase of the initial position, a position with no piece other than
+	 * kings and pawns has phase 0.
+	 */
+	static final int TOTAL_PHASE = 24;
+
+	/**
+	 * Middlegame score of each piece code on each square, material included,
+	 * positive for white pieces and negative for black pieces.
+	 */
+	static final int[][] MIDGAME = new int[BitBoard.PIECE_CODES][BitBoard.SQUARES];
+
+	/**
+	 * Endgame score of each piece code on each square, material included,
+	 * positive for white pieces and negative for black pieces.
+	 */
+	static final int[][] ENDGAME = new int[BitBoard.PIECE_CODES][BitBoard.SQUARES];
+
+	/**
+	 * Phase weight of each piece code.
+	 */
+	static final int[] PHASE = new int[BitBoard.PIECE_CODES];
+
+	/**
+	 * Bonus of a rook on each square, seen from white (row 0 is rank 8).
+	 */
+	private static final int[] ROOK_TABLE = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			5, 10, 10, 10, 10, 10, 10, 5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			0, 0, 0, 5, 5, 0, 0, 0
+	};
+
+	/**
+	 * Bonus of a knight on each square, seen from white.
+	 */
+	private static final int[] KNIGHT_TABLE = {
+			-50, -40, -30, -30, -30, -30, -40, -50,
+			-40, -20, 0, 0, 0, 0, -20, -40,
+			-30, 0, 10, 15, 15, 10, 0, -30,
+			-30, 5, 15, 20, 20, 15, 5, -30,
+			-30, 0, 15, 20, 20, 15, 0, -30,
+			-30, 5, 10, 15, 15, 10, 5, -30,
+			-40, -20, 0, 5, 5, 0, -20, -40,
+			-50, -40, -30, -30, -30, -30, -40, -50
+	};
+
+	/**
+	 * Bonus of a bishop on each square, seen from white.
+	 */
+	private static final int[] BISHOP_TABLE = {
+			-20, -10, -10, -10, -10, -10, -10, -20,
+			-10, 0, 0, 0, 0, 0, 0, -10,
+			-10, 0, 5, 10, 10, 5, 0, -10,
+			-10, 5, 5, 10, 10, 5, 5, -10,
+			-10, 0, 10, 10, 10, 10, 0, -10,
+			-10, 10, 10, 10, 10, 10, 10, -10,
+			-10, 5, 0, 0, 0, 0, 5, -10,
+			-20, -10, -10, -10, -10, -10, -10, -20
+	};
+
+	/**
+	 * Bonus of a queen on each square, seen from white.
+	 */
+	private static final int[] QUEEN_TABLE = {
+			-20, -10, -10, -5, -5, -10, -10, -20,
+			-10, 0, 0, 0, 0, 0, 0, -10,
+			-10, 0, 5, 5, 5, 5, 0, -10,
+			-5, 0, 5, 5, 5, 5, 0, -5,
+			0, 0, 5, 5, 5, 5, 0, -5,
+			-10, 5, 5, 5, 5, 5, 0, -10,
+			-10, 0, 5, 0, 0, 0, 0, -10,
+			-20, -10, -10, -5, -5, -10, -10, -20
+	};
+
+	/**
+	 * Middlegame bonus of a king on each square, seen from white. The king
+	 * stays behind its pawns.
+	 */
+	private static final int[] KING_MIDGAME_TABLE = {
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-20, -30, -30, -40, -40, -30, -30, -20,
+			-10, -20, -20, -20, -20, -20, -20, -10,
+			20, 20, 0, 0, 0, 0, 20, 20,
+			20, 30, 10, 0, 0, 10, 30, 20
+	};
+
+	/**
+	 * Endgame bonus of a king on each square, seen from white. The king
+	 * moves to the center.
+	 */
+	private static final int[] KING_ENDGAME_TABLE = {
+			-50, -40, -30, -20, -20, -30, -40, -50,
+			-30, -20, -10, 0, 0, -10, -20, -30,
+			-30, -10, 20, 30, 30, 20, -10, -30,
+			-30, -10, 30, 40, 40, 30, -10, -30,
+			-30, -10, 30, 40, 40, 30, -10, -30,
+			-30, -10, 20, 30, 30, 20, -10, -30,
+			-30, -30, 0, 0, 0, 0, -30, -30,
+			-50, -30, -30, -30, -30, -30, -30, -50
+	};
+
+	/**
+	 * Middlegame bonus of a pawn on each square, seen from white.
+	 */
+	private static final int[] PAWN_MIDGAME_TABLE = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			50, 50, 50, 50, 50, 50, 50, 50,
+			10, 10, 20, 30, 30, 20, 10, 10,
+			5, 5, 10, 25, 25, 10, 5, 5,
+			0, 0, 0, 20, 20, 0, 0, 0,
+			5, -5, -10, 0, 0, -10, -5, 5,
+			5, 10, 10, -20, -20, 10, 10, 5,
+			0, 0, 0, 0, 0, 0, 0, 0
+	};
+
+	/**
+	 * Endgame bonus of a pawn on each square, seen from white. Passed pawns
+	 * decide endgames, so every row closer to promotion counts more.
+	 */
+	private static final int[] PAWN_ENDGAME_TABLE = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			80, 80, 80, 80, 80, 80, 80, 80,
+			50, 50, 50, 50, 50, 50, 50, 50,
+			30, 30, 30, 30, 30, 30, 30, 30,
+			20, 20, 20, 20, 20, 20, 20, 20,
+			10, 10, 10, 10, 10, 10, 10, 10,
+			0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0, 0, 0, 0
+	};
+
+	static {
+		int[][] midgameTables = { ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, KING_MIDGAME_TABLE,
+				PAWN_MIDGAME_TABLE };
+		int[][] endgameTables = { ROOK_TABLE, KNIGHT_TABLE, BISHOP_TABLE, QUEEN_TABLE, KING_ENDGAME_TABLE,
+				PAWN_ENDGAME_TABLE };
+		for (int type = 0; type < BitBoard.TYPES.length; type++) {
+			int white = BitBoard.WHITE * BitBoard.TYPES.length + type;
+			int black = BitBoard.BLACK * BitBoard.TYPES.length + type;
+			for (int square = 0; square < BitBoard.SQUARES; square++) {
+				// Black sees the board upside down, row r of white is row 7 - r of black.
+				int mirrored = square ^ 56;
+				MIDGAME[white][square] = MIDGAME_VALUES[type] + midgameTables[type][square];
+				MIDGAME[black][square] = -(MIDGAME_VALUES[type] + midgameTables[type][mirrored]);
+				ENDGAME[white][square] = ENDGAME_VALUES[type] + endgameTables[type][square];
+				ENDGAME[black][square] = -(ENDGAME_VALUES[type] + endgameTables[type][mirrored]);
+			}
+			PHASE[white] = PHASE_WEIGHTS[type];
+			PHASE[black] = PHASE_WEIGHTS[type];
+		}
+	}
+
+	/**
+	 * No instances, only static helpers.
+	 */
+	private Evaluation() {
+	}
+
+	/**
+	 * Method to score a position from the sums kept by the board
+	 * @param board position to score
+	 * @return score in centipawns from the point of view of the player to move
+	 */
+	static int evaluate(BitBoard board) {
+		// Promotions can raise the phase above the initial one.
+		int phase = Math.min(board.getPhase(), TOTAL_PHASE);
+		int score = (board.getMidgameScore() * phase + board.getEndgameScore() * (TOTAL_PHASE - phase))
+				/ TOTAL_PHASE;
+		return board.side() == BitBoard.WHITE ? score : -score;
+	}
+}
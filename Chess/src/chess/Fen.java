@@ -0,0 +1,327 @@
+package chess;
+
+/**
+ * Class to read and write positions in the Forsyth-Edwards Notation (FEN),
+ * e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1" for the
+ * initial position. The text is scanned char by char straight into a
+ * BitBoard, so loading a position splits no strings and creates no
+ * objects, which keeps the setup of large position suites cheap.
+ * The halfmove clock and the fullmove number are kept by the board, they
+ * default to "0 1" when left out.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public final class Fen {
+
+	/**
+	 * FEN of the position at the start of a game.
+	 */
+	public static final String INITIAL = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	/**
+	 * Letters of the white pieces indexed by piece type ordinal, the black
+	 * pieces use the lower case letters.
+	 */
+	private static final String LETTERS = "RNBQKP";
+
+	/**
+	 * Largest value read for a move counter, larger values are cut to it.
+	 */
+	private static final int MAX_COUNTER = 9999;
+
+	/**
+	 * No instances, only static helpers.
+	 */
+	private Fen() {
+	}
+
+	/**
+	 * Method to load a position into a board, replacing everything it kept.
+	 * The placement and side to move fields are required, the castling,
+	 * en passant and move counter fields may be left out.
+	 * @param fen text of the position
+	 * @param board board receiving the position
+	 * @throws IllegalArgumentException if the text is not a valid position
+	 */
+	public static void load(CharSequence fen, BitBoard board) {
+		board.clear();
+		int length = fen.length();
+		int i = 0;
+
+		// Piece placement, from row 0 (rank 8) to row 7 (rank 1).
+		int row = 0;
+		int col = 0;
+		for (; i < length && fen.charAt(i) != ' '; i++) {
+			char c = fen.charAt(i);
+			if (c == '/') {
+				if (col != BitBoard.SIDE || ++row == BitBoard.SIDE) {
+					throw invalid(fen);
+				}
+				col = 0;
+			} else if (c >= '1' && c <= '8') {
+				col += c - '0';
+				if (col > BitBoard.SIDE) {
+					throw invalid(fen);
+				}
+			} else {
+				int piece = pieceCode(c);
+				if (piece == BitBoard.NO_PIECE || col == BitBoard.SIDE) {
+					throw invalid(fen);
+				}
+				board.putPiece(BitBoard.square(row, col++), piece);
+			}
+		}
+		if (row != BitBoard.SIDE - 1 || col != BitBoard.SIDE
+				|| Long.bitCount(board.getPieces(BitBoard.pieceCode(PieceType.K, Player.White))) != 1
+				|| Long.bitCount(board.getPieces(BitBoard.pieceCode(PieceType.K, Player.Black))) != 1) {
+			throw invalid(fen);
+		}
+
+		// Side to move.
+		i = skipSpaces(fen, i);
+		if (i == length) {
+			throw invalid(fen);
+		}
+		char side = fen.charAt(i++);
+		if (side == 'b') {
+			board.setSideToMove(Player.Black);
+		} else if (side != 'w') {
+			throw invalid(fen);
+		}
+
+		// Castling rights.
+		i = skipSpaces(fen, i);
+		int rights = 0;
+		if (i < length && fen.charAt(i) == '-') {
+			i++;
+		} else {
+			for (; i < length && fen.charAt(i) != ' '; i++) {
+				int right = castlingRight(fen.charAt(i));
+				if (right == 0) {
+					throw invalid(fen);
+				}
+				rights |= right;
+			}
+		}
+		board.setCastlingRights(rights & possibleCastling(board));
+
+		// En passant square, on row 2 when white moves and on row 5 when black
+		// moves. It is dropped when no pawn can capture on it, as in make.
+		i = skipSpaces(fen, i);
+		if (i < length && fen.charAt(i) == '-') {
+			i++;
+		} else if (i < length) {
+			if (i + 1 == length) {
+				throw invalid(fen);
+			}
+			int epCol = fen.charAt(i) - 'a';
+			int epRow = BitBoard.SIDE - (fen.charAt(i + 1) - '0');
+			if (epCol < 0 || epCol >= BitBoard.SIDE || epRow != (board.side() == BitBoard.WHITE ? 2 : 5)) {
+				throw invalid(fen);
+			}
+			int enPassant = BitBoard.square(epRow, epCol);
+			if (board.canCaptureEnPassant(enPassant, board.side())) {
+				board.setEnPassantSquare(enPassant);
+			}
+			i += 2;
+		}
+
+		// Halfmove clock and fullmove number.
+		i = skipSpaces(fen, i);
+		if (i < length) {
+			int clock = 0;
+			for (; i < length && fen.charAt(i) != ' '; i++) {
+				clock = Math.min(clock * 10 + digit(fen, i), MAX_COUNTER);
+			}
+			board.setHalfmoveClock(clock);
+		}
+		i = skipSpaces(fen, i);
+		if (i < length) {
+			int number = 0;
+			for (; i < length && fen.charAt(i) != ' '; i++) {
+				number = Math.min(number * 10 + digit(fen, i), MAX_COUNTER);
+			}
+			board.setFullmoveNumber(Math.max(1, number));
+		}
+		if (skipSpaces(fen, i) != length) {
+			throw invalid(fen);
+		}
+	}
+
+	/**
+	 * Method to read a digit of a move counter
+	 * @param fen text of the position
+	 * @param i index of the digit
+	 * @return value of the digit
+	 * @throws IllegalArgumentException if the char is not a digit
+	 */
+	private static int digit(CharSequence fen, int i) {
+		char c = fen.charAt(i);
+		if (c < '0' || c > '9') {
+			throw invalid(fen);
+		}
+		return c - '0';
+	}
+
+	/**
+	 * Method to create a board from a position
+	 * @param fen text of the position
+	 * @return new board in the position
+	 * @throws IllegalArgumentException if the text is not a valid position
+	 */
+	public static BitBoard toBitBoard(CharSequence fen) {
+		BitBoard board = new BitBoard();
+		load(fen, board);
+		return board;
+	}
+
+	/**
+	 * Method to write the position of a board
+	 * @param board
+	 * @return text of the position
+	 */
+	public static String toFen(BitBoard board) {
+		StringBuilder sb = new StringBuilder(90);
+		for (int row = 0; row < BitBoard.SIDE; row++) {
+			if (row != 0) {
+				sb.append('/');
+			}
+			int empty = 0;
+			for (int col = 0; col < BitBoard.SIDE; col++) {
+				int piece = board.pieceAt(BitBoard.square(row, col));
+				if (piece == BitBoard.NO_PIECE) {
+					empty++;
+					continue;
+				}
+				if (empty != 0) {
+					sb.append((char) ('0' + empty));
+					empty = 0;
+				}
+				sb.append(letter(piece));
+			}
+			if (empty != 0) {
+				sb.append((char) ('0' + empty));
+			}
+		}
+
+		sb.append(board.side() == BitBoard.WHITE ? " w " : " b ");
+
+		int rights = board.getCastlingRights();
+		if (rights == 0) {
+			sb.append('-');
+		}
+		if ((rights & BitBoard.WHITE_KING_SIDE) != 0) {
+			sb.append('K');
+		}
+		if ((rights & BitBoard.WHITE_QUEEN_SIDE) != 0) {
+			sb.append('Q');
+		}
+		if ((rights & BitBoard.BLACK_KING_SIDE) != 0) {
+			sb.append('k');
+		}
+		if ((rights & BitBoard.BLACK_QUEEN_SIDE) != 0) {
+			sb.append('q');
+		}
+
+		sb.append(' ');
+		int enPassant = board.getEnPassantSquare();
+		sb.append(enPassant == BitBoard.NO_SQUARE ? "-" : Move.squareName(enPassant));
+		sb.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+		return sb.toString();
+	}
+
+	/**
+	 * Method to get the piece code of a FEN letter
+	 * @param c letter, upper case for white and lower case for black
+	 * @return piece code, NO_PIECE if c is not a piece letter
+	 */
+	private static int pieceCode(char c) {
+		int type = LETTERS.indexOf(c);
+		if (type >= 0) {
+			return BitBoard.WHITE * BitBoard.TYPES.length + type;
+		}
+		type = LETTERS.indexOf(Character.toUpperCase(c));
+		if (type >= 0) {
+			return BitBoard.BLACK * BitBoard.TYPES.length + type;
+		}
+		return BitBoard.NO_PIECE;
+	}
+
+	/**
+	 * Method to get the FEN letter of a piece code
+	 * @param piece valid piece code
+	 * @return letter, upper case for white and lower case for black
+	 */
+	private static char letter(int piece) {
+		char c = LETTERS.charAt(piece % BitBoard.TYPES.length);
+		return piece / BitBoard.TYPES.length == BitBoard.WHITE ? c : Character.toLowerCase(c);
+	}
+
+	/**
+	 * Method to get the castling flag of a FEN castling letter
+	 * @param c one of K, Q, k, q
+	 * @return castling flag, 0 if c is not a castling letter
+	 */
+	private static int castlingRight(char c) {
+		switch (c) {
+		case 'K':
+			return BitBoard.WHITE_KING_SIDE;
+		case 'Q':
+			return BitBoard.WHITE_QUEEN_SIDE;
+		case 'k':
+			return BitBoard.BLACK_KING_SIDE;
+		case 'q':
+			return BitBoard.BLACK_QUEEN_SIDE;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Method to find the castling rights the pieces allow, i.e. the rights
+	 * whose king and rook are still on their initial squares. Rights
+	 * claimed by a text without these pieces are dropped, so that no
+	 * castling moves a missing rook.
+	 * @param board board with the pieces loaded
+	 * @return combination of the castling flags
+	 */
+	static int possibleCastling(BitBoard board) {
+		int rights = 0;
+		for (Player owner : BitBoard.PLAYERS) {
+			int row = owner == Player.White ? BitBoard.SIDE - 1 : 0;
+			long rooks = board.getPieces(PieceType.R, owner);
+			if (board.pieceAt(BitBoard.square(row, 4)) != BitBoard.pieceCode(PieceType.K, owner)) {
+				continue;
+			}
+			if ((rooks & (1L << BitBoard.square(row, BitBoard.SIDE - 1))) != 0) {
+				rights |= owner == Player.White ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE;
+			}
+			if ((rooks & (1L << BitBoard.square(row, 0))) != 0) {
+				rights |= owner == Player.White ? BitBoard.WHITE_QUEEN_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+			}
+		}
+		return rights;
+	}
+
+	/**
+	 * Method to skip the spaces separating two fields
+	 * @param fen text of the position
+	 * @param i index to start from
+	 * @return index of the next char which is not a space
+	 */
+	private static int skipSpaces(CharSequence fen, int i) {
+		while (i < fen.length() && fen.charAt(i) == ' ') {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Method to create the exception thrown for an invalid position
+	 * @param fen text of the position
+	 * @return the exception to throw
+	 */
+	private static IllegalArgumentException invalid(CharSequence fen) {
+		return new IllegalArgumentException("Invalid FEN: " + fen);
+	}
+}
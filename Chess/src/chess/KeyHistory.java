@@ -0,0 +1,98 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Class keeping the Zobrist keys of the positions played before the current
+ * one, oldest first, in a growing array of longs. A position repeats when an
+ * earlier position with the same player to move has the same key. Captures
+ * and pawn moves can not be taken back, so only the positions since the last
+ * of them (as many as the halfmove clock) are compared, every second one.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class KeyHistory {
+
+	/**
+	 * Number of keys kept before the array grows.
+	 */
+	private static final int INITIAL_CAPACITY = 256;
+
+	/**
+	 * Keys of the positions, the last one is the position before the current one.
+	 */
+	private long[] keys;
+
+	/**
+	 * Number of keys kept.
+	 */
+	private int size;
+
+	/**
+	 * Create an empty history.
+	 */
+	public KeyHistory() {
+		keys = new long[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Method to create a copy of another history.
+	 * @param other
+	 */
+	public KeyHistory(KeyHistory other) {
+		keys = Arrays.copyOf(other.keys, Math.max(INITIAL_CAPACITY, other.keys.length));
+		size = other.size;
+	}
+
+	/**
+	 * Method to add the key of the position a move is made from
+	 * @param key Zobrist key of the position before the move
+	 */
+	public void push(long key) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+		}
+		keys[size++] = key;
+	}
+
+	/**
+	 * Method to remove the key added last, when its move is taken back
+	 */
+	public void pop() {
+		size--;
+	}
+
+	/**
+	 * Method to remove all the keys
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Getter for the number of keys kept
+	 * @return number of positions before the current one
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to count the earlier occurrences of the current position
+	 * @param key Zobrist key of the current position
+	 * @param halfmoveClock plies since the last capture or pawn move
+	 * @return number of earlier positions with the same key
+	 */
+	public int repetitions(long key, int halfmoveClock) {
+		int count = 0;
+		int oldest = Math.max(0, size - halfmoveClock);
+		// The position two plies back is the last one with the same player to move.
+		for (int i = size - 2; i >= oldest; i -= 2) {
+			if (keys[i] == key) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
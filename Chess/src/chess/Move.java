@@ -0,0 +1,192 @@
+package chess;
+
+/**
+ * Class with the helpers to encode a chess move into a single int, so that
+ * moves can be passed around and stored without creating objects.
+ * Bits 0-5 keep the source square, bits 6-11 the destination square and
+ * bits 12-15 the flags telling the kind of move (capture, castling,
+ * en passant, promotion etc.). Squares are BitBoard square indexes.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public final class Move {
+
+	/**
+	 * Value which never represents a valid move.
+	 */
+	public static final int NONE = 0;
+
+	/**
+	 * Flag of a move which does not capture anything.
+	 */
+	public static final int QUIET = 0;
+
+	/**
+	 * Flag of a pawn moving two rows on its first move.
+	 */
+	public static final int DOUBLE_PUSH = 1;
+
+	/**
+	 * Flag of a king side castling, the move of the king is encoded.
+	 */
+	public static final int KING_CASTLE = 2;
+
+	/**
+	 * Flag of a queen side castling, the move of the king is encoded.
+	 */
+	public static final int QUEEN_CASTLE = 3;
+
+	/**
+	 * Flag of a move capturing the piece on destination square.
+	 */
+	public static final int CAPTURE = 4;
+
+	/**
+	 * Flag of an en passant capture.
+	 */
+	public static final int EN_PASSANT = 5;
+
+	/**
+	 * Flag bit set for every promotion. The lowest two bits then tell the
+	 * promoted piece (Knight, Bishop, Rook, Queen) and CAPTURE bit tells if
+	 * the pawn captured while promoting.
+	 */
+	public static final int PROMOTION = 8;
+
+	/**
+	 * Piece types in the order of the lowest two bits of a promotion flag.
+	 */
+	private static final PieceType[] PROMOTIONS = { PieceType.N, PieceType.B, PieceType.R, PieceType.Q };
+
+	/**
+	 * No instances, only static helpers.
+	 */
+	private Move() {
+	}
+
+	/**
+	 * Method to encode a move
+	 * @param from source square
+	 * @param to destination square
+	 * @param flags one of the flag constants
+	 * @return encoded move
+	 */
+	public static int of(int from, int to, int flags) {
+		return from | (to << 6) | (flags << 12);
+	}
+
+	/**
+	 * Getter for the source square
+	 * @param move encoded move
+	 * @return square from 0 to 63
+	 */
+	public static int from(int move) {
+		return move & 63;
+	}
+
+	/**
+	 * Getter for the destination square
+	 * @param move encoded move
+	 * @return square from 0 to 63
+	 */
+	public static int to(int move) {
+		return (move >>> 6) & 63;
+	}
+
+	/**
+	 * Getter for the flags
+	 * @param move encoded move
+	 * @return flags from 0 to 15
+	 */
+	public static int flags(int move) {
+		return (move >>> 12) & 15;
+	}
+
+	/**
+	 * Method to check if the move captures a piece (including en passant)
+	 * @param move encoded move
+	 * @return true for a capture
+	 */
+	public static boolean isCapture(int move) {
+		return (move & (CAPTURE << 12)) != 0;
+	}
+
+	/**
+	 * Method to check if the move is an en passant capture
+	 * @param move encoded move
+	 * @return true for en passant
+	 */
+	public static boolean isEnPassant(int move) {
+		return flags(move) == EN_PASSANT;
+	}
+
+	/**
+	 * Method to check if the move is a castling move
+	 * @param move encoded move
+	 * @return true for castling on any side
+	 */
+	public static boolean isCastle(int move) {
+		int flags = flags(move);
+		return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+	}
+
+	/**
+	 * Method to check if the move promotes a pawn
+	 * @param move encoded move
+	 * @return true for a promotion
+	 */
+	public static boolean isPromotion(int move) {
+		return (move & (PROMOTION << 12)) != 0;
+	}
+
+	/**
+	 * Getter for the piece a pawn is promoted to
+	 * Precondition: move is a promotion
+	 * @param move encoded move
+	 * @return promoted piece type
+	 */
+	public static PieceType promotionType(int move) {
+		return PROMOTIONS[(move >>> 12) & 3];
+	}
+
+	/**
+	 * Method to get the flags of a promotion to a given piece
+	 * @param type Knight, Bishop, Rook or Queen
+	 * @param capture true if pawn captures while promoting
+	 * @return promotion flags
+	 */
+	public static int promotionFlags(PieceType type, boolean capture) {
+		int flags = PROMOTION | (capture ? CAPTURE : 0);
+		for (int i = 0; i < PROMOTIONS.length; i++) {
+			if (PROMOTIONS[i] == type) {
+				return flags | i;
+			}
+		}
+		return flags | 3;
+	}
+
+	/**
+	 * Method to write a move the way it is typed on the command line,
+	 * like "e2 e4" or "e7 e8 N" for a promotion.
+	 * @param move encoded move
+	 * @return text of the move
+	 */
+	public static String toString(int move) {
+		String text = squareName(from(move)) + " " + squareName(to(move));
+		if (isPromotion(move)) {
+			text += " " + promotionType(move).name();
+		}
+		return text;
+	}
+
+	/**
+	 * Method to get the file rank name of a square like "e4".
+	 * @param square square from 0 to 63
+	 * @return name of the square
+	 */
+	public static String squareName(int square) {
+		char file = (char) ('a' + BitBoard.col(square));
+		char rank = (char) ('0' + BitBoard.SIDE - BitBoard.row(square));
+		return "" + file + rank;
+	}
+}
@@ -0,0 +1,522 @@
+package chess;
+
+/**
+ * Class generating the moves of a BitBoard position. Moves are written as
+ * encoded ints (see Move) into an array supplied by the caller, which can be
+ * reused from call to call, so that generation does not create any object.
+ * Moves generated by generate are pseudo legal: they follow the movement
+ * rules of the pieces but may leave the own king under attack. Moves
+ * generated by generateLegal are all legal, and generateLegalCaptures
+ * generates the legal captures only. isLegal checks a single move.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public final class MoveGenerator {
+
+	/**
+	 * Size of a move array large enough for any chess position.
+	 */
+	public static final int MAX_MOVES = 256;
+
+	/**
+	 * Mask of the squares on the a file (col 0).
+	 */
+	static final long FILE_A = 0x0101010101010101L;
+
+	/**
+	 * Mask of the squares on the h file (col 7).
+	 */
+	static final long FILE_H = FILE_A << 7;
+
+	/**
+	 * No instances, only static helpers.
+	 */
+	private MoveGenerator() {
+	}
+
+	/**
+	 * Method to generate all the pseudo legal moves of the side to move.
+	 * @param board position to generate the moves for
+	 * @param moves array receiving the moves, at least MAX_MOVES long
+	 * @return number of moves written in the array
+	 */
+	public static int generate(BitBoard board, int[] moves) {
+		int us = board.side();
+		long own = board.getOccupancy(us);
+		long enemy = board.getOccupancy(us ^ 1);
+		long occupied = board.getOccupied();
+		int first = us * BitBoard.TYPES.length;
+
+		long pawns = board.getPieces(first + BitBoard.PAWN);
+		int count = generatePawnMoves(board, moves, 0, pawns, ~0L, false);
+
+		for (long mask = board.getPieces(first + BitBoard.KNIGHT); mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, AttackTables.KNIGHT_ATTACKS[from] & ~own, enemy);
+		}
+		for (long mask = board.getPieces(first + BitBoard.BISHOP); mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, SlidingAttacks.bishopAttacks(from, occupied) & ~own, enemy);
+		}
+		for (long mask = board.getPieces(first + BitBoard.ROOK); mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, SlidingAttacks.rookAttacks(from, occupied) & ~own, enemy);
+		}
+		for (long mask = board.getPieces(first + BitBoard.QUEEN); mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, SlidingAttacks.queenAttacks(from, occupied) & ~own, enemy);
+		}
+		for (long mask = board.getPieces(first + BitBoard.KING); mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, AttackTables.KING_ATTACKS[from] & ~own, enemy);
+		}
+
+		return generateCastling(board, moves, count);
+	}
+
+	/**
+	 * Method to generate only the legal moves of the side to move. The pieces
+	 * giving check, the squares which stop a check and the pinned pieces are
+	 * computed once, and every piece is then restricted to the squares where
+	 * it keeps its king safe, so no move has to be tried on the board.
+	 * @param board position to generate the moves for
+	 * @param moves array receiving the moves, at least MAX_MOVES long
+	 * @return number of moves written in the array
+	 */
+	public static int generateLegal(BitBoard board, int[] moves) {
+		return generateLegal(board, moves, false);
+	}
+
+	/**
+	 * Method to generate the legal captures of the side to move, en passant
+	 * and promotions with capture included, for the searches which only look
+	 * at captures.
+	 * @param board position to generate the moves for
+	 * @param moves array receiving the moves, at least MAX_MOVES long
+	 * @return number of moves written in the array
+	 */
+	public static int generateLegalCaptures(BitBoard board, int[] moves) {
+		return generateLegal(board, moves, true);
+	}
+
+	/**
+	 * Method to generate the legal moves, see generateLegal(BitBoard, int[]).
+	 * @param board position to generate the moves for
+	 * @param moves array receiving the moves, at least MAX_MOVES long
+	 * @param capturesOnly true to generate the captures only
+	 * @return number of moves written in the array
+	 */
+	private static int generateLegal(BitBoard board, int[] moves, boolean capturesOnly) {
+		int us = board.side();
+		int them = us ^ 1;
+		long own = board.getOccupancy(us);
+		long enemy = board.getOccupancy(them);
+		long occupied = board.getOccupied();
+		int first = us * BitBoard.TYPES.length;
+		int king = board.kingSquare(us);
+		int count = 0;
+		if (king == BitBoard.NO_SQUARE) {
+			return count;
+		}
+		long targets = capturesOnly ? enemy : ~own;
+
+		// King can go on any square not attacked once it has left its square,
+		// so that it can not step back along the ray of a slider.
+		long withoutKing = occupied ^ (1L << king);
+		for (long mask = AttackTables.KING_ATTACKS[king] & targets; mask != 0; mask &= mask - 1) {
+			int to = Long.numberOfTrailingZeros(mask);
+			if (board.attackersTo(to, them, withoutKing) == 0) {
+				moves[count++] = Move.of(king, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+			}
+		}
+
+		long checkers = board.attackersTo(king, them, occupied);
+		if ((checkers & (checkers - 1)) != 0) {
+			// Double check, only the king can move.
+			return count;
+		}
+
+		// Other pieces must capture the checker or block its ray.
+		long checkMask = ~0L;
+		if (checkers != 0) {
+			checkMask = checkers | AttackTables.BETWEEN[king][Long.numberOfTrailingZeros(checkers)];
+		}
+		// Pushes go to empty squares, so only captures are left for the
+		// pawns once the destinations are restricted to the enemy pieces.
+		long allowed = checkMask & targets;
+
+		// A piece is pinned if it is the only piece between the king and
+		// an enemy slider, it can then only move along that line.
+		int enemyFirst = them * BitBoard.TYPES.length;
+		long enemyQueens = board.getPieces(enemyFirst + BitBoard.QUEEN);
+		long snipers = (SlidingAttacks.rookAttacks(king, enemy)
+				& (board.getPieces(enemyFirst + BitBoard.ROOK) | enemyQueens))
+				| (SlidingAttacks.bishopAttacks(king, enemy)
+						& (board.getPieces(enemyFirst + BitBoard.BISHOP) | enemyQueens));
+		long pinned = 0;
+		for (long mask = snipers; mask != 0; mask &= mask - 1) {
+			long between = AttackTables.BETWEEN[king][Long.numberOfTrailingZeros(mask)] & occupied;
+			if (between != 0 && (between & (between - 1)) == 0) {
+				pinned |= between & own;
+			}
+		}
+
+		long pawns = board.getPieces(first + BitBoard.PAWN);
+		count = generatePawnMoves(board, moves, count, pawns & ~pinned, allowed, true);
+		for (long mask = pawns & pinned; mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = generatePawnMoves(board, moves, count, 1L << from, allowed & AttackTables.LINE[king][from], true);
+		}
+
+		// A pinned knight can never stay on the line of the pin.
+		for (long mask = board.getPieces(first + BitBoard.KNIGHT) & ~pinned; mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			count = addTargets(moves, count, from, AttackTables.KNIGHT_ATTACKS[from] & allowed, enemy);
+		}
+		long diagonal = board.getPieces(first + BitBoard.BISHOP) | board.getPieces(first + BitBoard.QUEEN);
+		for (long mask = diagonal; mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			long line = (pinned & (1L << from)) != 0 ? AttackTables.LINE[king][from] : ~0L;
+			count = addTargets(moves, count, from, SlidingAttacks.bishopAttacks(from, occupied) & allowed & line,
+					enemy);
+		}
+		long straight = board.getPieces(first + BitBoard.ROOK) | board.getPieces(first + BitBoard.QUEEN);
+		for (long mask = straight; mask != 0; mask &= mask - 1) {
+			int from = Long.numberOfTrailingZeros(mask);
+			long line = (pinned & (1L << from)) != 0 ? AttackTables.LINE[king][from] : ~0L;
+			count = addTargets(moves, count, from, SlidingAttacks.rookAttacks(from, occupied) & allowed & line,
+					enemy);
+		}
+
+		if (checkers == 0 && !capturesOnly) {
+			count = generateCastling(board, moves, count);
+		}
+		return count;
+	}
+
+	/**
+	 * Method to add the moves of some pawns of the side to move. Pawns are
+	 * moved all together by shifting their mask one or two rows ahead.
+	 * @param board
+	 * @param moves
+	 * @param count number of moves already in the array
+	 * @param pawns mask of the pawns to move
+	 * @param allowed mask of the destination squares allowed (en passant excepted)
+	 * @param legal true to add en passant captures only when they keep the king safe
+	 * @return new number of moves in the array
+	 */
+	private static int generatePawnMoves(BitBoard board, int[] moves, int count, long pawns, long allowed,
+			boolean legal) {
+		int us = board.side();
+		long empty = ~board.getOccupied();
+		long enemy = board.getOccupancy(us ^ 1) & allowed;
+		int enPassant = board.getEnPassantSquare();
+		long enPassantBit = enPassant == BitBoard.NO_SQUARE ? 0 : 1L << enPassant;
+
+		// White moves towards row 0, i.e. to lower squares.
+		long single, doubled, left, right;
+		int forward;
+		if (us == BitBoard.WHITE) {
+			forward = -BitBoard.SIDE;
+			single = (pawns >>> 8) & empty;
+			doubled = ((single & rowMask(5)) >>> 8) & empty;
+			left = ((pawns & ~FILE_A) >>> 9) & (enemy | enPassantBit);
+			right = ((pawns & ~FILE_H) >>> 7) & (enemy | enPassantBit);
+		} else {
+			forward = BitBoard.SIDE;
+			single = (pawns << 8) & empty;
+			doubled = ((single & rowMask(2)) << 8) & empty;
+			left = ((pawns & ~FILE_A) << 7) & (enemy | enPassantBit);
+			right = ((pawns & ~FILE_H) << 9) & (enemy | enPassantBit);
+		}
+
+		count = addPawnTargets(board, moves, count, single & allowed, forward, Move.QUIET, legal);
+		for (long mask = doubled & allowed; mask != 0; mask &= mask - 1) {
+			int to = Long.numberOfTrailingZeros(mask);
+			moves[count++] = Move.of(to - 2 * forward, to, Move.DOUBLE_PUSH);
+		}
+		count = addPawnTargets(board, moves, count, left, forward - 1, Move.CAPTURE, legal);
+		return addPawnTargets(board, moves, count, right, forward + 1, Move.CAPTURE, legal);
+	}
+
+	/**
+	 * Method to check if an en passant capture leaves the own king safe, by
+	 * looking for attackers of the king on the occupancy after the capture.
+	 * @param board
+	 * @param move encoded en passant move
+	 * @return true if the king is not attacked after the move
+	 */
+	private static boolean isEnPassantSafe(BitBoard board, int move) {
+		int us = board.side();
+		int king = board.kingSquare(us);
+		long occupied = board.getOccupied() ^ (1L << Move.from(move)) ^ (1L << BitBoard.enPassantVictim(move))
+				| (1L << Move.to(move));
+		return board.attackersTo(king, us ^ 1, occupied) == 0;
+	}
+
+	/**
+	 * Method to add pawn moves to a set of destination squares, expanding
+	 * the moves to the last row into the four promotions.
+	 * @param board
+	 * @param count number of moves already in the array
+	 * @param targets mask of the destination squares
+	 * @param shift destination minus source square for all the targets
+	 * @param flags QUIET or CAPTURE
+	 * @param legal true to add en passant captures only when they keep the king safe
+	 * @return new number of moves in the array
+	 */
+	private static int addPawnTargets(BitBoard board, int[] moves, int count, long targets, int shift, int flags,
+			boolean legal) {
+		int enPassant = board.getEnPassantSquare();
+		for (long mask = targets; mask != 0; mask &= mask - 1) {
+			int to = Long.numberOfTrailingZeros(mask);
+			int from = to - shift;
+			int row = BitBoard.row(to);
+			if (row == 0 || row == BitBoard.SIDE - 1) {
+				boolean capture = flags == Move.CAPTURE;
+				moves[count++] = Move.of(from, to, Move.promotionFlags(PieceType.Q, capture));
+				moves[count++] = Move.of(from, to, Move.promotionFlags(PieceType.N, capture));
+				moves[count++] = Move.of(from, to, Move.promotionFlags(PieceType.R, capture));
+				moves[count++] = Move.of(from, to, Move.promotionFlags(PieceType.B, capture));
+			} else if (flags == Move.CAPTURE && to == enPassant) {
+				int move = Move.of(from, to, Move.EN_PASSANT);
+				// En passant removes two pawns from a row, which can expose the king
+				// in ways pins and check masks do not catch, so verify it directly.
+				if (!legal || isEnPassantSafe(board, move)) {
+					moves[count++] = move;
+				}
+			} else {
+				moves[count++] = Move.of(from, to, flags);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Method to add the moves of a piece to a set of destination squares.
+	 * @param moves
+	 * @param count number of moves already in the array
+	 * @param from square of the piece
+	 * @param targets mask of the destination squares, none holding an own piece
+	 * @param enemy occupancy of the opponent
+	 * @return new number of moves in the array
+	 */
+	private static int addTargets(int[] moves, int count, int from, long targets, long enemy) {
+		for (long mask = targets; mask != 0; mask &= mask - 1) {
+			int to = Long.numberOfTrailingZeros(mask);
+			moves[count++] = Move.of(from, to, (enemy & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+		}
+		return count;
+	}
+
+	/**
+	 * Method to add the castling moves of the side to move. Castling needs the
+	 * right to be still available, the squares between king and rook to be
+	 * empty, and the king to not start, pass or end on an attacked square.
+	 * @param board
+	 * @param moves
+	 * @param count number of moves already in the array
+	 * @return new number of moves in the array
+	 */
+	private static int generateCastling(BitBoard board, int[] moves, int count) {
+		int us = board.side();
+		int rights = board.getCastlingRights() & (us == BitBoard.WHITE
+				? BitBoard.WHITE_KING_SIDE | BitBoard.WHITE_QUEEN_SIDE
+				: BitBoard.BLACK_KING_SIDE | BitBoard.BLACK_QUEEN_SIDE);
+		if (rights == 0) {
+			return count;
+		}
+
+		int king = BitBoard.square(us == BitBoard.WHITE ? BitBoard.SIDE - 1 : 0, 4);
+		long occupied = board.getOccupied();
+		int them = us ^ 1;
+		if (board.isSquareAttacked(king, them)) {
+			return count;
+		}
+
+		int kingSide = us == BitBoard.WHITE ? BitBoard.WHITE_KING_SIDE : BitBoard.BLACK_KING_SIDE;
+		if ((rights & kingSide) != 0 && (occupied & (3L << (king + 1))) == 0
+				&& !board.isSquareAttacked(king + 1, them) && !board.isSquareAttacked(king + 2, them)) {
+			moves[count++] = Move.of(king, king + 2, Move.KING_CASTLE);
+		}
+		if ((rights & ~kingSide) != 0 && (occupied & (7L << (king - 3))) == 0
+				&& !board.isSquareAttacked(king - 1, them) && !board.isSquareAttacked(king - 2, them)) {
+			moves[count++] = Move.of(king, king - 2, Move.QUEEN_CASTLE);
+		}
+		return count;
+	}
+
+	/**
+	 * Method to check if a move is legal in a position, without generating
+	 * the moves of the position and without changing the board. The move
+	 * must carry the flags generate would give it in the position (capture,
+	 * en passant, double push, castling, promotion), so a move of another
+	 * position, like a hash move, can be checked as well.
+	 * @param board position to check the move in
+	 * @param move encoded move
+	 * @return true if the move is one of the legal moves of the position
+	 */
+	public static boolean isLegal(BitBoard board, int move) {
+		return isPseudoLegal(board, move) && keepsKingSafe(board, move);
+	}
+
+	/**
+	 * Method to check if a move follows the movement rules of its piece in
+	 * a position, leaving aside the safety of the own king except for
+	 * castling, which is checked completely.
+	 * @param board position to check the move in
+	 * @param move encoded move
+	 * @return true if generate would generate the move
+	 */
+	static boolean isPseudoLegal(BitBoard board, int move) {
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int flags = Move.flags(move);
+		int us = board.side();
+		long own = board.getOccupancy(us);
+		long enemy = board.getOccupancy(us ^ 1);
+		long toBit = 1L << to;
+		if ((own & (1L << from)) == 0 || (own & toBit) != 0) {
+			return false;
+		}
+		// The capture flag must match the destination, en passant aside.
+		if (flags != Move.EN_PASSANT && ((flags & Move.CAPTURE) != 0) != ((enemy & toBit) != 0)) {
+			return false;
+		}
+
+		int type = board.pieceAt(from) % BitBoard.TYPES.length;
+		if (type == BitBoard.PAWN) {
+			return isPawnMove(board, from, to, flags);
+		}
+		if (flags == Move.KING_CASTLE || flags == Move.QUEEN_CASTLE) {
+			return type == BitBoard.KING && isCastlingLegal(board, from, to, flags == Move.KING_CASTLE);
+		}
+		if ((flags & ~Move.CAPTURE) != 0) {
+			return false;
+		}
+
+		long occupied = board.getOccupied();
+		long targets;
+		switch (type) {
+		case BitBoard.KNIGHT:
+			targets = AttackTables.KNIGHT_ATTACKS[from];
+			break;
+		case BitBoard.BISHOP:
+			targets = SlidingAttacks.bishopAttacks(from, occupied);
+			break;
+		case BitBoard.ROOK:
+			targets = SlidingAttacks.rookAttacks(from, occupied);
+			break;
+		case BitBoard.QUEEN:
+			targets = SlidingAttacks.queenAttacks(from, occupied);
+			break;
+		default:
+			targets = AttackTables.KING_ATTACKS[from];
+			break;
+		}
+		return (targets & toBit) != 0;
+	}
+
+	/**
+	 * Method to check if a pawn move follows the movement rules of the pawn.
+	 * The destination is already known to hold no own piece, and an enemy
+	 * piece exactly when the move is flagged as a capture.
+	 * @param board
+	 * @param from square of the pawn
+	 * @param to destination square
+	 * @param flags flags of the move
+	 * @return true if the pawn can make the move
+	 */
+	private static boolean isPawnMove(BitBoard board, int from, int to, int flags) {
+		int us = board.side();
+		int forward = us == BitBoard.WHITE ? -BitBoard.SIDE : BitBoard.SIDE;
+		boolean promotion = (flags & Move.PROMOTION) != 0;
+		// Moves to the last row, and only them, are promotions.
+		if (promotion != (BitBoard.row(to) == (us == BitBoard.WHITE ? 0 : BitBoard.SIDE - 1))) {
+			return false;
+		}
+
+		boolean attacks = (AttackTables.PAWN_ATTACKS[us][from] & (1L << to)) != 0;
+		if (flags == Move.EN_PASSANT) {
+			return attacks && to == board.getEnPassantSquare();
+		}
+		if ((flags & Move.CAPTURE) != 0) {
+			return attacks && (promotion || flags == Move.CAPTURE);
+		}
+		if (flags == Move.DOUBLE_PUSH) {
+			return (BitBoard.PAWN_START[us] & (1L << from)) != 0 && to == from + 2 * forward
+					&& (board.getOccupied() & (1L << (from + forward) | 1L << to)) == 0;
+		}
+		return (promotion || flags == Move.QUIET) && to == from + forward;
+	}
+
+	/**
+	 * Method to check if a castling move is legal, with the same rules as
+	 * generateCastling.
+	 * @param board
+	 * @param from square of the king
+	 * @param to destination square of the king
+	 * @param kingSide true for castling on the king side, false for the queen side
+	 * @return true if the king can castle
+	 */
+	private static boolean isCastlingLegal(BitBoard board, int from, int to, boolean kingSide) {
+		int us = board.side();
+		int them = us ^ 1;
+		int king = BitBoard.square(us == BitBoard.WHITE ? BitBoard.SIDE - 1 : 0, 4);
+		int right;
+		if (us == BitBoard.WHITE) {
+			right = kingSide ? BitBoard.WHITE_KING_SIDE : BitBoard.WHITE_QUEEN_SIDE;
+		} else {
+			right = kingSide ? BitBoard.BLACK_KING_SIDE : BitBoard.BLACK_QUEEN_SIDE;
+		}
+		int step = kingSide ? 1 : -1;
+		if (from != king || to != king + 2 * step || (board.getCastlingRights() & right) == 0) {
+			return false;
+		}
+		long between = kingSide ? 3L << (king + 1) : 7L << (king - 3);
+		return (board.getOccupied() & between) == 0 && !board.isSquareAttacked(king, them)
+				&& !board.isSquareAttacked(king + step, them) && !board.isSquareAttacked(king + 2 * step, them);
+	}
+
+	/**
+	 * Method to check if a pseudo legal move leaves the own king safe, by
+	 * looking for attackers of the king on the occupancy after the move.
+	 * @param board position before the move
+	 * @param move encoded pseudo legal move
+	 * @return true if the king is not attacked after the move
+	 */
+	static boolean keepsKingSafe(BitBoard board, int move) {
+		if (Move.isCastle(move)) {
+			// The squares of the king were checked with the castling rules.
+			return true;
+		}
+		int us = board.side();
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int king = board.kingSquare(us);
+		if (king == from) {
+			king = to;
+		} else if (king == BitBoard.NO_SQUARE) {
+			return true;
+		}
+
+		// A captured piece does not attack any more.
+		long removed = 1L << to;
+		long occupied = (board.getOccupied() ^ (1L << from)) | removed;
+		if (Move.isEnPassant(move)) {
+			long victim = 1L << BitBoard.enPassantVictim(move);
+			occupied ^= victim;
+			removed |= victim;
+		}
+		return (board.attackersTo(king, us ^ 1, occupied) & ~removed) == 0;
+	}
+
+	/**
+	 * Method to get the mask of a grid row
+	 * @param row from 0 to SIDE-1
+	 * @return mask of the 8 squares of the row
+	 */
+	static long rowMask(int row) {
+		return 0xFFL << (row * BitBoard.SIDE);
+	}
+}
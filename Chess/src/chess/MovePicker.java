@@ -0,0 +1,231 @@
+package chess;
+
+/**
+ * Class handing out the legal moves of a position one by one, in the order
+ * most likely to make alpha-beta cut off early. The moves come in stages:
+ * the hash move (best move found for the position before), the captures
+ * with the most valuable victim and the least valuable attacker first
+ * (MVV-LVA), the killer moves (quiet moves which cut off at the same ply
+ * in other positions), and the other quiet moves by their history score
+ * (how often they cut off anywhere in the search). Moves and scores are
+ * kept in primitive arrays and sorted lazily with one selection sort step
+ * per move handed out, so no sorting is wasted on the moves after a cut.
+ * One picker is reused for every node of a ply.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+final class MovePicker {
+
+	/**
+	 * Stage handing out the hash move.
+	 */
+	private static final int HASH = 0;
+
+	/**
+	 * Stage handing out the captures and promotions.
+	 */
+	private static final int CAPTURES = 1;
+
+	/**
+	 * Stage handing out the first killer move.
+	 */
+	private static final int FIRST_KILLER = 2;
+
+	/**
+	 * Stage handing out the second killer move.
+	 */
+	private static final int SECOND_KILLER = 3;
+
+	/**
+	 * Stage handing out the other quiet moves.
+	 */
+	private static final int QUIETS = 4;
+
+	/**
+	 * Stage after the last move.
+	 */
+	private static final int DONE = 5;
+
+	/**
+	 * Legal moves of the position, captures first.
+	 */
+	private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+	/**
+	 * Ordering score of each move.
+	 */
+	private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+
+	/**
+	 * Number of legal moves.
+	 */
+	private int count;
+
+	/**
+	 * End of the captures in the moves array.
+	 */
+	private int captureEnd;
+
+	/**
+	 * Index of the next move to consider in the current stage.
+	 */
+	private int next;
+
+	/**
+	 * Current stage.
+	 */
+	private int stage;
+
+	/**
+	 * Moves handed out by their own stage, skipped by the later stages.
+	 */
+	private int hashMove, firstKiller, secondKiller;
+
+	/**
+	 * History scores of the player to move, indexed by from * 64 + to.
+	 */
+	private int[] history;
+
+	/**
+	 * Method to start handing out the moves of a position
+	 * @param board position, which must not change until the last move is handed out
+	 * @param hashMove move to hand out first, Move.NONE if none
+	 * @param firstKiller first killer move of the ply, Move.NONE if none
+	 * @param secondKiller second killer move of the ply, Move.NONE if none
+	 * @param history history scores of the player to move
+	 * @return number of legal moves
+	 */
+	int init(BitBoard board, int hashMove, int firstKiller, int secondKiller, int[] history) {
+		this.count = MoveGenerator.generateLegal(board, moves);
+		this.history = history;
+		this.stage = HASH;
+		this.next = 0;
+
+		// Captures and promotions go to the front, scored by MVV-LVA.
+		captureEnd = 0;
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			if (Move.isCapture(move) || Move.isPromotion(move)) {
+				moves[i] = moves[captureEnd];
+				moves[captureEnd] = move;
+				scores[captureEnd++] = captureScore(board, move);
+			}
+		}
+
+		this.hashMove = hashMove != Move.NONE && MoveGenerator.isLegal(board, hashMove) ? hashMove : Move.NONE;
+		this.firstKiller = firstKiller != this.hashMove && isQuiet(board, firstKiller) ? firstKiller : Move.NONE;
+		this.secondKiller = secondKiller != this.hashMove && secondKiller != this.firstKiller
+				&& isQuiet(board, secondKiller) ? secondKiller : Move.NONE;
+		return count;
+	}
+
+	/**
+	 * Method to get the next move to search. Each stage falls through to
+	 * the next one when it has no move left.
+	 * @return encoded move, Move.NONE once all the moves were handed out
+	 */
+	@SuppressWarnings("fallthrough")
+	int next() {
+		switch (stage) {
+		case HASH:
+			stage = CAPTURES;
+			if (hashMove != Move.NONE) {
+				return hashMove;
+			}
+			// fall through
+		case CAPTURES:
+			while (next < captureEnd) {
+				pickBest(moves, scores, next, captureEnd);
+				int move = moves[next++];
+				if (move != hashMove) {
+					return move;
+				}
+			}
+			stage = FIRST_KILLER;
+			// fall through
+		case FIRST_KILLER:
+			stage = SECOND_KILLER;
+			if (firstKiller != Move.NONE) {
+				return firstKiller;
+			}
+			// fall through
+		case SECOND_KILLER:
+			stage = QUIETS;
+			for (int i = captureEnd; i < count; i++) {
+				scores[i] = history[Move.from(moves[i]) << 6 | Move.to(moves[i])];
+			}
+			if (secondKiller != Move.NONE) {
+				return secondKiller;
+			}
+			// fall through
+		case QUIETS:
+			while (next < count) {
+				pickBest(moves, scores, next, count);
+				int move = moves[next++];
+				if (move != hashMove && move != firstKiller && move != secondKiller) {
+					return move;
+				}
+			}
+			stage = DONE;
+			// fall through
+		default:
+			return Move.NONE;
+		}
+	}
+
+	/**
+	 * Method to score a capture or promotion, the most valuable victim first
+	 * and for the same victim the least valuable attacker first.
+	 * @param board
+	 * @param move
+	 * @return ordering score
+	 */
+	private static int captureScore(BitBoard board, int move) {
+		int attacker = BitBoard.typeOf(board.pieceAt(Move.from(move))).ordinal();
+		int score = -StaticExchange.VALUES[attacker] / 100;
+		if (Move.isEnPassant(move)) {
+			score += StaticExchange.VALUES[BitBoard.PAWN] * 16;
+		} else if (Move.isCapture(move)) {
+			score += StaticExchange.VALUES[BitBoard.typeOf(board.pieceAt(Move.to(move))).ordinal()] * 16;
+		}
+		if (Move.isPromotion(move)) {
+			score += StaticExchange.VALUES[Move.promotionType(move).ordinal()] * 16;
+		}
+		return score;
+	}
+
+	/**
+	 * Method to check if a move is a legal quiet move of the position, as a
+	 * killer move found in another position must be
+	 * @param board
+	 * @param move
+	 * @return true if the move is legal and neither a capture nor a promotion
+	 */
+	private static boolean isQuiet(BitBoard board, int move) {
+		return move != Move.NONE && !Move.isCapture(move) && !Move.isPromotion(move)
+				&& MoveGenerator.isLegal(board, move);
+	}
+
+	/**
+	 * Method to bring the move with the highest score among the moves not
+	 * handed out yet to the next position (one step of a selection sort).
+	 * @param list moves
+	 * @param scores score of each move, swapped along with the moves
+	 * @param next index of the next move to hand out
+	 * @param end end of the moves to sort
+	 */
+	static void pickBest(int[] list, int[] scores, int next, int end) {
+		int best = next;
+		for (int i = next + 1; i < end; i++) {
+			if (scores[i] > scores[best]) {
+				best = i;
+			}
+		}
+		int move = list[next];
+		list[next] = list[best];
+		list[best] = move;
+		int score = scores[next];
+		scores[next] = scores[best];
+		scores[best] = score;
+	}
+}
@@ -0,0 +1,305 @@
+package chess;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Class counting the leaf nodes of the tree of legal moves of a position up
+ * to a fixed depth (perft). Since the counts of well known positions are
+ * published, perft verifies the move generator, and the time it takes
+ * measures the speed of move generation.
+ * Counts can be cached in a PerftTable shared by several threads, and the
+ * moves of the root position can be split over a fork join pool.
+ * The main method runs perft from the command line and reports the node
+ * count, elapsed time and nodes per second.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class Perft {
+
+	/**
+	 * Size of the table of counts used from the command line.
+	 */
+	private static final int HASH_MEGA_BYTES = 256;
+
+	/**
+	 * Known perft counts of the initial position, index is the depth.
+	 */
+	private static final long[] INITIAL_COUNTS = { 1L, 20L, 400L, 8902L, 197281L, 4865609L, 119060324L,
+			3195901860L };
+
+	/**
+	 * Positions of the standard perft suite: the initial position,
+	 * "Kiwipete" and the positions 3 to 6 of the Chess Programming Wiki,
+	 * which cover castling, en passant, promotions and pins.
+	 */
+	private static final String[] SUITE_FENS = { Fen.INITIAL,
+			"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+			"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+			"r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+			"rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+			"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10" };
+
+	/**
+	 * Known perft counts of the suite positions, index is the depth.
+	 */
+	private static final long[][] SUITE_COUNTS = { INITIAL_COUNTS,
+			{ 1L, 48L, 2039L, 97862L, 4085603L, 193690690L },
+			{ 1L, 14L, 191L, 2812L, 43238L, 674624L, 11030083L },
+			{ 1L, 6L, 264L, 9467L, 422333L, 15833292L },
+			{ 1L, 44L, 1486L, 62379L, 2103487L, 89941194L },
+			{ 1L, 46L, 2079L, 89890L, 3894594L, 164075551L } };
+
+	/**
+	 * Board on which the moves are made and unmade.
+	 */
+	private final BitBoard board;
+
+	/**
+	 * One move array per depth, reused for every node at that depth.
+	 */
+	private final int[][] moves;
+
+	/**
+	 * Table caching the counts of the positions, null to not cache.
+	 */
+	private final PerftTable table;
+
+	/**
+	 * Create a perft counter for a position
+	 * @param board position to count from, it is copied
+	 * @param maxDepth largest depth which will be asked
+	 */
+	public Perft(BitBoard board, int maxDepth) {
+		this(board, maxDepth, null);
+	}
+
+	/**
+	 * Create a perft counter for a position, caching counts in a table
+	 * @param board position to count from, it is copied
+	 * @param maxDepth largest depth which will be asked
+	 * @param table table of counts, which may be shared with other threads
+	 * @throws IllegalArgumentException if maxDepth is negative
+	 */
+	public Perft(BitBoard board, int maxDepth, PerftTable table) {
+		if (maxDepth < 0) {
+			throw negativeDepth(maxDepth);
+		}
+		this.board = new BitBoard(board);
+		this.moves = new int[maxDepth + 1][MoveGenerator.MAX_MOVES];
+		this.table = table;
+	}
+
+	/**
+	 * Method to count the leaf nodes of the legal move tree
+	 * @param depth number of moves (plies) to look ahead
+	 * @return number of leaf nodes, 1 at depth 0 (the position itself)
+	 * @throws IllegalArgumentException if depth is negative
+	 */
+	public long perft(int depth) {
+		if (depth <= 0) {
+			if (depth < 0) {
+				throw negativeDepth(depth);
+			}
+			return 1;
+		}
+		int[] list = moves[depth];
+		int count = MoveGenerator.generateLegal(board, list);
+
+		// Moves are legal, so the nodes of the last ply need not be made.
+		if (depth == 1) {
+			return count;
+		}
+
+		long key = board.getKey();
+		if (table != null) {
+			long cached = table.get(key, depth);
+			if (cached >= 0) {
+				return cached;
+			}
+		}
+
+		long nodes = 0;
+		for (int i = 0; i < count; i++) {
+			long undo = board.make(list[i]);
+			nodes += perft(depth - 1);
+			board.unmake(list[i], undo);
+		}
+
+		if (table != null) {
+			table.put(key, depth, nodes);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Method to count the leaf nodes with the moves of the root position
+	 * split over the threads of a pool. Every move is counted by its own
+	 * task, the tasks share the table of counts.
+	 * @param board position to count from
+	 * @param depth number of moves (plies) to look ahead
+	 * @param table table of counts shared by the tasks, null to not cache
+	 * @param pool pool running the tasks
+	 * @return number of leaf nodes, 1 at depth 0
+	 * @throws IllegalArgumentException if depth is negative
+	 */
+	public static long parallelPerft(BitBoard board, int depth, PerftTable table, ForkJoinPool pool) {
+		if (depth <= 0) {
+			if (depth < 0) {
+				throw negativeDepth(depth);
+			}
+			return 1;
+		}
+		int[] list = new int[MoveGenerator.MAX_MOVES];
+		int count = MoveGenerator.generateLegal(board, list);
+		if (depth == 1) {
+			return count;
+		}
+
+		List<PerftTask> tasks = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			PerftTask task = new PerftTask(board, list[i], depth - 1, table);
+			pool.execute(task);
+			tasks.add(task);
+		}
+
+		long nodes = 0;
+		for (PerftTask task : tasks) {
+			nodes += task.join();
+		}
+		return nodes;
+	}
+
+	/**
+	 * Method to count the leaf nodes below every legal move of the position,
+	 * printing one line per move. Comparing these lines with another move
+	 * generator tells which move leads to a wrong count.
+	 * @param depth number of moves (plies) to look ahead, no line is
+	 * printed at depth 0
+	 * @param out stream receiving the lines
+	 * @return total number of leaf nodes, 1 at depth 0
+	 * @throws IllegalArgumentException if depth is negative
+	 */
+	public long divide(int depth, PrintStream out) {
+		if (depth <= 0) {
+			return perft(depth);
+		}
+		int[] list = moves[depth];
+		int count = MoveGenerator.generateLegal(board, list);
+		long total = 0;
+		for (int i = 0; i < count; i++) {
+			long undo = board.make(list[i]);
+			long nodes = perft(depth - 1);
+			board.unmake(list[i], undo);
+			out.println(Move.toString(list[i]) + ": " + nodes);
+			total += nodes;
+		}
+		return total;
+	}
+
+	/**
+	 * Method to print the result of a run
+	 * @param out stream receiving the line
+	 * @param depth depth of the run
+	 * @param nodes number of leaf nodes counted
+	 * @param nanos elapsed time in nano seconds
+	 */
+	static void report(PrintStream out, int depth, long nodes, long nanos) {
+		long millis = Math.max(1, nanos / 1000000);
+		out.println("depth " + depth + ": " + nodes + " nodes, " + millis + " ms, " + (nodes * 1000 / millis)
+				+ " nodes/s");
+	}
+
+	/**
+	 * Method to create the exception thrown for a negative depth
+	 * @param depth the depth asked
+	 * @return the exception to throw
+	 */
+	private static IllegalArgumentException negativeDepth(int depth) {
+		return new IllegalArgumentException("Invalid perft depth: " + depth);
+	}
+
+	/**
+	 * Method to run the standard suite, counting every position at the
+	 * given depth (or its deepest known count if lower) and checking the
+	 * counts against the known ones.
+	 * @param depth number of moves (plies) to look ahead, at least 1
+	 * @param out stream receiving the results
+	 * @return true if all the counts are right
+	 */
+	public static boolean runSuite(int depth, PrintStream out) {
+		boolean passed = true;
+		BitBoard board = new BitBoard();
+		for (int i = 0; i < SUITE_FENS.length; i++) {
+			int d = Math.min(depth, SUITE_COUNTS[i].length - 1);
+			Fen.load(SUITE_FENS[i], board);
+			out.println(SUITE_FENS[i]);
+			long start = System.nanoTime();
+			long nodes = new Perft(board, d).perft(d);
+			report(out, d, nodes, System.nanoTime() - start);
+			if (nodes != SUITE_COUNTS[i][d]) {
+				out.println("Mismatch, expected " + SUITE_COUNTS[i][d]);
+				passed = false;
+			}
+		}
+		return passed;
+	}
+
+	/**
+	 * Start point of perft from the command line. Usage:
+	 * <pre>java chess.Perft [depth] [divide [fen] | hash | parallel [threads] | suite]</pre>
+	 * It counts the initial position at every depth from 1 to depth (5 if not
+	 * given), checking the counts against the known ones. With divide, only
+	 * the given depth is run, from the initial position or the given FEN, and
+	 * the count of every first move is printed. With hash, counts are cached
+	 * in a table, and with parallel the root moves are also split over threads
+	 * (all the cores if not given). With suite, the positions of the standard
+	 * suite are counted at depth.
+	 */
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+		String mode = args.length > 1 ? args[1] : "";
+		BitBoard initial = BitBoard.initialPosition();
+
+		if (mode.equals("divide")) {
+			BitBoard board = args.length > 2 ? Fen.toBitBoard(args[2]) : initial;
+			long start = System.nanoTime();
+			long nodes = new Perft(board, depth).divide(depth, System.out);
+			report(System.out, depth, nodes, System.nanoTime() - start);
+			return;
+		}
+
+		if (mode.equals("suite")) {
+			if (!runSuite(depth, System.out)) {
+				System.exit(1);
+			}
+			return;
+		}
+
+		PerftTable table = null;
+		ForkJoinPool pool = null;
+		if (mode.equals("hash") || mode.equals("parallel")) {
+			table = new PerftTable(HASH_MEGA_BYTES);
+		}
+		if (mode.equals("parallel")) {
+			int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+			pool = new ForkJoinPool(threads);
+		}
+
+		Perft perft = new Perft(initial, depth, table);
+		for (int d = 1; d <= depth; d++) {
+			long start = System.nanoTime();
+			long nodes = pool != null ? parallelPerft(initial, d, table, pool) : perft.perft(d);
+			report(System.out, d, nodes, System.nanoTime() - start);
+			if (d < INITIAL_COUNTS.length && nodes != INITIAL_COUNTS[d]) {
+				System.out.println("Mismatch, expected " + INITIAL_COUNTS[d]);
+			}
+		}
+
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package chess;
+
+/**
+ * Class caching the perft counts of positions already counted, so that a
+ * position reached again by another move order is not counted twice.
+ * Entries are kept in a single long array without any lock: every entry
+ * holds the position key xored with its data, and the data (count and
+ * depth). A reader recomputes the key from both words, so an entry half
+ * written by another thread never matches and is simply a miss. Each slot
+ * keeps the last position stored in it.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class PerftTable {
+
+	/**
+	 * Two longs per entry: key xor data, then data. Data keeps the depth in
+	 * the lowest 8 bits and the node count above.
+	 */
+	private final long[] entries;
+
+	/**
+	 * Mask selecting the entry index from a key.
+	 */
+	private final int mask;
+
+	/**
+	 * Create a table using about the given amount of memory.
+	 * @param megaBytes memory to use, rounded down to a power of two entries
+	 */
+	public PerftTable(int megaBytes) {
+		long bytes = Math.max(1, megaBytes) * 1024L * 1024L;
+		int size = Integer.highestOneBit((int) Math.min(bytes / 16, 1 << 30));
+		entries = new long[size * 2];
+		mask = size - 1;
+	}
+
+	/**
+	 * Method to look up the count of a position
+	 * @param key Zobrist key of the position
+	 * @param depth depth of the count
+	 * @return count stored for key and depth, -1 if none
+	 */
+	public long get(long key, int depth) {
+		int index = ((int) key & mask) << 1;
+		long data = entries[index + 1];
+		if ((entries[index] ^ data) == key && (data & 0xFF) == depth) {
+			return data >>> 8;
+		}
+		return -1;
+	}
+
+	/**
+	 * Method to store the count of a position, replacing the entry in its slot
+	 * @param key Zobrist key of the position
+	 * @param depth depth of the count
+	 * @param nodes count of the position
+	 */
+	public void put(long key, int depth, long nodes) {
+		int index = ((int) key & mask) << 1;
+		long data = (nodes << 8) | depth;
+		entries[index] = key ^ data;
+		entries[index + 1] = data;
+	}
+}
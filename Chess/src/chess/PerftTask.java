@@ -0,0 +1,59 @@
+package chess;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork join task counting the perft nodes below one move of a position.
+ * Each task works on its own copy of the board and its own move arrays,
+ * only the table of counts is shared between the tasks.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+class PerftTask extends RecursiveTask<Long> {
+
+	/**
+	 * Serialization id, tasks are never serialized.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Position before the move, shared read only between tasks.
+	 */
+	private final BitBoard board;
+
+	/**
+	 * The encoded move to count below.
+	 */
+	private final int move;
+
+	/**
+	 * Depth left after the move.
+	 */
+	private final int depth;
+
+	/**
+	 * Shared table of counts, may be null.
+	 */
+	private final PerftTable table;
+
+	/**
+	 * Create a task counting below one move
+	 * @param board position before the move, it is copied by the task
+	 * @param move legal move of the position
+	 * @param depth depth left after the move
+	 * @param table shared table of counts, null to not cache
+	 */
+	PerftTask(BitBoard board, int move, int depth, PerftTable table) {
+		this.board = board;
+		this.move = move;
+		this.depth = depth;
+		this.table = table;
+	}
+
+	@Override
+	protected Long compute() {
+		BitBoard copy = new BitBoard(board);
+		copy.make(move);
+		return new Perft(copy, depth, table).perft(depth);
+	}
+}
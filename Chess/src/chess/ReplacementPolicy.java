@@ -0,0 +1,22 @@
+package chess;
+
+/**
+ * Enum representing the ways a TranspositionTable decides if a new entry
+ * replaces the entry already kept in its slot.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public enum ReplacementPolicy {
+	/**
+	 * The new entry always replaces the old one.
+	 */
+	ALWAYS,
+
+	/**
+	 * The new entry replaces the old one if it is for the same position, if
+	 * it was searched at least as deep, or if the old one was stored by an
+	 * earlier search. Deep entries, which cost the most to compute, survive
+	 * the many shallow entries of the same search.
+	 */
+	DEPTH_PREFERRED;
+}
@@ -0,0 +1,760 @@
+package chess;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Class searching the best move of a position with a negamax alpha-beta
+ * search. The search deepens one ply at a time (iterative deepening) until
+ * the depth or time budget is spent, and every iteration tries first the
+ * line of play (principal variation) found by the previous one, which lets
+ * alpha-beta cut off most of the other moves. Moves are made and unmade in
+ * place on a single BitBoard, so no board is copied while searching.
+ * Once the depth is spent, a quiescence search plays out the captures
+ * which do not lose material (see StaticExchange), so that positions are
+ * only scored once they are quiet and an exchange is never cut in half.
+ * Results are cached in a TranspositionTable, so a position reached again
+ * by another move order is answered from the table or at least searches the
+ * best move found before first. The other moves are ordered by MovePicker,
+ * which learns from every cut off the killer moves of each ply and the
+ * history scores of the quiet moves. The selective features of
+ * SearchOptions (null move pruning, late move reductions, futility pruning
+ * and razoring) spend less effort on the moves unlikely to matter.
+ * Several searches sharing one table can run on the same position in
+ * parallel (lazy SMP), each filling the table with results the others
+ * pick up.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class Search {
+
+	/**
+	 * Largest number of plies searched from the root.
+	 */
+	static final int MAX_PLY = 64;
+
+	/**
+	 * Score bound larger than every possible score.
+	 */
+	static final int INFINITY = 32000;
+
+	/**
+	 * Score of a mate on the board at the root, a mate n plies away scores
+	 * MATE - n so that the search prefers the shortest mate.
+	 */
+	static final int MATE = 31000;
+
+	/**
+	 * History score above which all the history scores are halved, so
+	 * that recent cut offs weigh more than old ones.
+	 */
+	private static final int HISTORY_LIMIT = 1 << 20;
+
+	/**
+	 * Largest remaining depth of the nodes pruned by futility and razoring.
+	 */
+	private static final int FRONTIER_DEPTH = 3;
+
+	/**
+	 * Margin per remaining ply of futility pruning, in centipawns.
+	 */
+	private static final int FUTILITY_MARGIN = 120;
+
+	/**
+	 * Margin per remaining ply of razoring, in centipawns.
+	 */
+	private static final int RAZOR_MARGIN = 250;
+
+	/**
+	 * Smallest remaining depth of the nodes tried with a null move.
+	 */
+	private static final int NULL_MOVE_DEPTH = 3;
+
+	/**
+	 * Number of moves searched at full depth before late move reductions.
+	 */
+	private static final int FULL_DEPTH_MOVES = 3;
+
+	/**
+	 * Number of nodes searched between two checks of the clock.
+	 */
+	private static final int CLOCK_CHECK_NODES = 2048;
+
+	/**
+	 * Size of the table of a search created without one.
+	 */
+	static final int HASH_MEGA_BYTES = 16;
+
+	/**
+	 * Board on which the moves are made and unmade.
+	 */
+	private final BitBoard board;
+
+	/**
+	 * One move array per ply, reused for every node of the quiescence
+	 * search at that ply.
+	 */
+	private final int[][] moves;
+
+	/**
+	 * One move picker per ply, reused for every node at that ply.
+	 */
+	private final MovePicker[] pickers;
+
+	/**
+	 * Two killer moves per ply: the last quiet moves which cut off at that ply.
+	 */
+	private final int[][] killers;
+
+	/**
+	 * History score of the quiet moves per player, indexed by from * 64 + to,
+	 * raised every time the move cuts off.
+	 */
+	private final int[][] history;
+
+	/**
+	 * One score array per ply, the exchange gain of each capture searched
+	 * by the quiescence search.
+	 */
+	private final int[][] moveScores;
+
+	/**
+	 * Principal variation of every ply (triangular table), the line of ply
+	 * n is kept in pv[n][n] to pv[n][pvLength[n] - 1].
+	 */
+	private final int[][] pv;
+
+	/**
+	 * End of the principal variation of every ply.
+	 */
+	private final int[] pvLength;
+
+	/**
+	 * Table caching the results of the positions searched.
+	 */
+	private final TranspositionTable table;
+
+	/**
+	 * Evaluator of the captures searched by the quiescence search.
+	 */
+	private final StaticExchange exchange;
+
+	/**
+	 * Keys of the positions of the game and of the searched line before
+	 * the current position.
+	 */
+	private KeyHistory positions;
+
+	/**
+	 * Selective features in use.
+	 */
+	private SearchOptions options;
+
+	/**
+	 * Principal variation of the last completed iteration.
+	 */
+	private int[] previousPv;
+
+	/**
+	 * Number of positions visited.
+	 */
+	private long nodes;
+
+	/**
+	 * Deadlines, node limit and stop flag of the running search.
+	 */
+	private TimeManager clock;
+
+	/**
+	 * Flag set when the time is over or the search is stopped, the running
+	 * iteration is dropped.
+	 */
+	private boolean stopped;
+
+	/**
+	 * Flag set by another thread to stop the search, read with the clock.
+	 */
+	private volatile boolean stopRequested;
+
+	/**
+	 * Plies added to the depth of every iteration, so that parallel
+	 * searches do not all search the same depth at the same time.
+	 */
+	private int depthOffset;
+
+	/**
+	 * Flag set when every search starts a new generation of the table,
+	 * false for the threads of parallelSearch, which starts one for all.
+	 */
+	private boolean agesTable = true;
+
+	/**
+	 * Stream receiving one line per completed iteration, null for none.
+	 */
+	private PrintStream output;
+
+	/**
+	 * Create a search of a position with a table of its own
+	 * @param board position to search, it is copied
+	 */
+	public Search(BitBoard board) {
+		this(board, new TranspositionTable(HASH_MEGA_BYTES, ReplacementPolicy.DEPTH_PREFERRED));
+	}
+
+	/**
+	 * Create a search of a position
+	 * @param board position to search, it is copied
+	 * @param table table caching the results, which may be kept between searches
+	 */
+	public Search(BitBoard board, TranspositionTable table) {
+		this.board = new BitBoard(board);
+		this.table = table;
+		this.exchange = new StaticExchange();
+		this.options = new SearchOptions();
+		this.positions = new KeyHistory();
+		this.moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+		this.moveScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+		this.pickers = new MovePicker[MAX_PLY];
+		for (int ply = 0; ply < MAX_PLY; ply++) {
+			pickers[ply] = new MovePicker();
+		}
+		this.killers = new int[MAX_PLY][2];
+		this.history = new int[BitBoard.PLAYERS.length][BitBoard.SQUARES * BitBoard.SQUARES];
+		this.pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+		this.pvLength = new int[MAX_PLY + 1];
+		this.previousPv = new int[0];
+	}
+
+	/**
+	 * Setter for the selective features of the search
+	 * @param options
+	 */
+	public void setOptions(SearchOptions options) {
+		this.options = options;
+	}
+
+	/**
+	 * Setter for the positions played in the game before the searched
+	 * position, so that the search sees repetitions of them as draws
+	 * @param history keys of the positions, copied
+	 */
+	public void setHistory(KeyHistory history) {
+		positions = new KeyHistory(history);
+	}
+
+	/**
+	 * Setter for the stream receiving one line per completed iteration
+	 * @param output stream, null for none
+	 */
+	public void setOutput(PrintStream output) {
+		this.output = output;
+	}
+
+	/**
+	 * Method to search the best move of the player to move within a time budget
+	 * @param maxDepth largest depth to search, at least 1
+	 * @param millis time budget in milli seconds, 0 or less for no limit
+	 * @return the result of the last completed iteration, null if the search
+	 * was stopped before one completed
+	 */
+	public SearchResult search(int maxDepth, long millis) {
+		return search(SearchLimits.of(maxDepth, millis));
+	}
+
+	/**
+	 * Method to search the best move of the player to move within limits
+	 * @param limits depth, time and nodes to search, see TimeManager
+	 * @return the result of the last completed iteration, null if the search
+	 * was stopped before one completed
+	 */
+	public SearchResult search(SearchLimits limits) {
+		return search(limits.depth, new TimeManager(limits, BitBoard.PLAYERS[board.side()]));
+	}
+
+	/**
+	 * Method to search the best move of the player to move. Iterations go
+	 * deeper until maxDepth or until the time manager stops them. The first
+	 * iteration always completes, unless the search is stopped with stop(),
+	 * so a move is found even with no time.
+	 * @param maxDepth largest depth to search, at least 1
+	 * @param clock deadlines, node limit and stop flag, which may be shared
+	 * by the threads of a search
+	 * @return the result of the last completed iteration, null if the search
+	 * was stopped before one completed
+	 */
+	public SearchResult search(int maxDepth, TimeManager clock) {
+		this.clock = clock;
+		stopped = false;
+		nodes = 0;
+		previousPv = new int[0];
+		if (agesTable) {
+			table.newSearch();
+		}
+		for (int[] plyKillers : killers) {
+			Arrays.fill(plyKillers, Move.NONE);
+		}
+		for (int[] scores : history) {
+			Arrays.fill(scores, 0);
+		}
+
+		SearchResult result = null;
+		maxDepth = Math.max(1, Math.min(maxDepth, MAX_PLY - 1));
+		for (int iteration = 1; iteration <= maxDepth; iteration++) {
+			int depth = Math.min(iteration + depthOffset, maxDepth);
+			int score = negamax(depth, -INFINITY, INFINITY, 0, false);
+			if (stopped) {
+				break;
+			}
+
+			previousPv = Arrays.copyOf(pv[0], pvLength[0]);
+			result = new SearchResult(previousPv.length > 0 ? previousPv[0] : Move.NONE, score, depth, nodes,
+					previousPv);
+			if (output != null) {
+				output.println(result + " time " + clock.getElapsed());
+			}
+			// No need to look deeper once a mate is found or when there is no move.
+			if (previousPv.length == 0 || isMateScore(score) || !clock.canStartIteration()) {
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Method to search the best move with several threads sharing a table
+	 * (lazy SMP). Every thread searches the position on its own board copy
+	 * and half of the helper threads search one ply deeper, so that they
+	 * store results the main thread needs next. The result is the result of
+	 * the main thread, which stops the helpers when it is done.
+	 * @param board position to search
+	 * @param maxDepth largest depth to search, at least 1
+	 * @param clock deadlines, node limit and stop flag shared by the threads
+	 * @param table table shared by the threads
+	 * @param threads number of threads, at least 1
+	 * @param options selective features of every thread
+	 * @param history keys of the positions of the game before the searched one
+	 * @return the result of the main thread, with the nodes of all threads,
+	 * null if the search was stopped before an iteration completed
+	 */
+	public static SearchResult parallelSearch(BitBoard board, int maxDepth, TimeManager clock,
+			TranspositionTable table, int threads, SearchOptions options, KeyHistory history) {
+		Search[] helpers = new Search[threads - 1];
+		Thread[] workers = new Thread[threads - 1];
+		table.newSearch();
+		for (int i = 0; i < helpers.length; i++) {
+			Search helper = new Search(board, table);
+			helper.depthOffset = i % 2;
+			helper.agesTable = false;
+			helper.options = options;
+			helper.setHistory(history);
+			helpers[i] = helper;
+			workers[i] = new Thread(() -> helper.search(maxDepth, clock), "search-" + (i + 1));
+			workers[i].setDaemon(true);
+			workers[i].start();
+		}
+
+		Search main = new Search(board, table);
+		main.options = options;
+		main.agesTable = false;
+		main.setHistory(history);
+		SearchResult result = main.search(maxDepth, clock);
+
+		long nodes = 0;
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].stop();
+			try {
+				workers[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			nodes += helpers[i].getNodes();
+		}
+		if (result == null) {
+			return null;
+		}
+		nodes += result.nodes;
+		return new SearchResult(result.move, result.score, result.depth, nodes, result.pv);
+	}
+
+	/**
+	 * Method to stop the search from another thread. The running search
+	 * returns the result of its last completed iteration, null if none, and
+	 * later searches of this object return at once.
+	 */
+	public void stop() {
+		stopRequested = true;
+	}
+
+	/**
+	 * Method to search a position with alpha-beta in the negamax form, the
+	 * score of a position being the negated best score of its children.
+	 * @param depth remaining plies to search
+	 * @param alpha score the player to move is already sure of
+	 * @param beta score above which the opponent avoids this position
+	 * @param ply distance from the root
+	 * @param afterNullMove true if the opponent just passed, so the player
+	 * to move may not pass as well
+	 * @return score of the position from the point of view of the player to move
+	 */
+	private int negamax(int depth, int alpha, int beta, int ply, boolean afterNullMove) {
+		pvLength[ply] = ply;
+		nodes++;
+		if ((nodes & (CLOCK_CHECK_NODES - 1)) == 0 && checkClock()) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0;
+		}
+		if (ply > 0 && isDraw()) {
+			return 0;
+		}
+
+		if (depth == 0) {
+			return quiescence(alpha, beta, ply);
+		}
+		if (ply == MAX_PLY - 1) {
+			return Evaluation.evaluate(board);
+		}
+
+		long key = board.getKey();
+		int hashMove = Move.NONE;
+		long entry = table.probe(key);
+		if (entry != TranspositionTable.MISS) {
+			hashMove = TranspositionTable.move(entry);
+			// The root is always searched, so that it gets a full line of play.
+			if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+				int score = scoreFromTable(TranspositionTable.score(entry), ply);
+				int bound = TranspositionTable.bound(entry);
+				if (bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER && score >= beta)
+						|| (bound == TranspositionTable.UPPER && score <= alpha)) {
+					return score;
+				}
+			}
+		}
+
+		// Selective pruning, only in nodes searched with a null window (not
+		// on the line of play) and never under check.
+		boolean inCheck = board.isInCheck();
+		boolean pvNode = beta - alpha > 1;
+		boolean futile = false;
+		int staticScore = 0;
+		if (!pvNode && !inCheck) {
+			staticScore = Evaluation.evaluate(board);
+			if (options.futilityPruning && depth <= FRONTIER_DEPTH && staticScore - FUTILITY_MARGIN * depth >= beta
+					&& !isMateScore(beta)) {
+				return staticScore - FUTILITY_MARGIN * depth;
+			}
+			if (options.razoring && depth <= FRONTIER_DEPTH && staticScore + RAZOR_MARGIN * depth <= alpha) {
+				int score = quiescence(alpha, beta, ply);
+				if (score <= alpha) {
+					return score;
+				}
+			}
+			if (options.nullMovePruning && !afterNullMove && depth >= NULL_MOVE_DEPTH && staticScore >= beta
+					&& hasPieces(board.side())) {
+				int reduction = depth >= 7 ? 3 : 2;
+				positions.push(key);
+				long undo = board.makeNullMove();
+				int score = -negamax(depth - 1 - reduction, -beta, -beta + 1, ply + 1, true);
+				board.unmakeNullMove(undo);
+				positions.pop();
+				if (stopped) {
+					return 0;
+				}
+				if (score >= beta) {
+					// A mate found after passing is not a proven mate.
+					return isMateScore(score) ? beta : score;
+				}
+			}
+			futile = options.futilityPruning && depth <= FRONTIER_DEPTH
+					&& staticScore + FUTILITY_MARGIN * depth <= alpha;
+		}
+
+		if (hashMove == Move.NONE && ply < previousPv.length) {
+			hashMove = previousPv[ply];
+		}
+		MovePicker picker = pickers[ply];
+		int[] plyKillers = killers[ply];
+		if (picker.init(board, hashMove, plyKillers[0], plyKillers[1], history[board.side()]) == 0) {
+			// Checkmate or stalemate.
+			return inCheck ? -MATE + ply : 0;
+		}
+
+		int alphaStart = alpha;
+		int best = -INFINITY;
+		int bestMove = Move.NONE;
+		int searched = 0;
+		for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+			boolean quiet = !Move.isCapture(move) && !Move.isPromotion(move);
+			positions.push(key);
+			long undo = board.make(move);
+			boolean givesCheck = board.isInCheck();
+
+			// Quiet moves can not raise a hopeless score, unless they check.
+			if (futile && quiet && !givesCheck && searched > 0) {
+				board.unmake(move, undo);
+				positions.pop();
+				best = Math.max(best, staticScore + FUTILITY_MARGIN * depth);
+				continue;
+			}
+
+			int score;
+			if (options.lateMoveReductions && searched >= FULL_DEPTH_MOVES && depth >= NULL_MOVE_DEPTH && quiet
+					&& !inCheck && !givesCheck && move != plyKillers[0] && move != plyKillers[1]) {
+				int reduction = searched >= 2 * FULL_DEPTH_MOVES && depth >= 6 ? 2 : 1;
+				score = -negamax(depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, false);
+				if (score > alpha && !stopped) {
+					score = -negamax(depth - 1, -beta, -alpha, ply + 1, false);
+				}
+			} else {
+				score = -negamax(depth - 1, -beta, -alpha, ply + 1, false);
+			}
+			board.unmake(move, undo);
+			positions.pop();
+			searched++;
+			if (stopped) {
+				return 0;
+			}
+
+			if (score > best) {
+				best = score;
+				bestMove = move;
+				if (score > alpha) {
+					alpha = score;
+					pv[ply][ply] = move;
+					System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, pvLength[ply + 1] - ply - 1);
+					pvLength[ply] = pvLength[ply + 1];
+					if (alpha >= beta) {
+						if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+							recordCutOff(move, depth, ply);
+						}
+						break;
+					}
+				}
+			}
+		}
+
+		int bound = best >= beta ? TranspositionTable.LOWER
+				: best > alphaStart ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+		table.store(key, bestMove, scoreToTable(best, ply), depth, bound);
+		return best;
+	}
+
+	/**
+	 * Method to search only the captures of a position, until it is quiet.
+	 * The player to move may also stand pat, i.e. keep the static score of
+	 * the position when no capture improves it, except under check where
+	 * every legal move is searched. Captures are searched from the best
+	 * exchange down, and captures losing material are skipped.
+	 * @param alpha score the player to move is already sure of
+	 * @param beta score above which the opponent avoids this position
+	 * @param ply distance from the root
+	 * @return score of the position from the point of view of the player to move
+	 */
+	private int quiescence(int alpha, int beta, int ply) {
+		pvLength[ply] = ply;
+		nodes++;
+		if ((nodes & (CLOCK_CHECK_NODES - 1)) == 0 && checkClock()) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0;
+		}
+		if (ply == MAX_PLY - 1) {
+			return Evaluation.evaluate(board);
+		}
+
+		int[] list = moves[ply];
+		int count;
+		int best;
+		boolean inCheck = board.isInCheck();
+		if (inCheck) {
+			count = MoveGenerator.generateLegal(board, list);
+			if (count == 0) {
+				return -MATE + ply;
+			}
+			best = -INFINITY;
+		} else {
+			best = Evaluation.evaluate(board);
+			if (best >= beta) {
+				return best;
+			}
+			alpha = Math.max(alpha, best);
+			count = MoveGenerator.generateLegalCaptures(board, list);
+		}
+
+		int[] gains = moveScores[ply];
+		if (!inCheck) {
+			for (int i = 0; i < count; i++) {
+				gains[i] = exchange.evaluate(board, list[i]);
+			}
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (!inCheck) {
+				MovePicker.pickBest(list, gains, i, count);
+				if (gains[i] < 0) {
+					// The rest of the captures lose material as well.
+					break;
+				}
+			}
+			long undo = board.make(list[i]);
+			int score = -quiescence(-beta, -alpha, ply + 1);
+			board.unmake(list[i], undo);
+			if (stopped) {
+				return 0;
+			}
+
+			if (score > best) {
+				best = score;
+				if (score > alpha) {
+					alpha = score;
+					if (alpha >= beta) {
+						break;
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Method to check if the search must stop, called once every
+	 * CLOCK_CHECK_NODES nodes. The limits of the time manager only count
+	 * once an iteration completed.
+	 * @return true if the search must stop
+	 */
+	private boolean checkClock() {
+		boolean over = clock.check(CLOCK_CHECK_NODES);
+		return stopRequested || (over && previousPv.length > 0);
+	}
+
+	/**
+	 * Method to check if the current position is a draw by the fifty move
+	 * rule or by repetition. In the search a position which came once
+	 * before is scored as a draw already, since if repeating is good for a
+	 * player it will be good again.
+	 * @return true if the position is a draw
+	 */
+	private boolean isDraw() {
+		int clock = board.getHalfmoveClock();
+		return clock >= BitBoard.FIFTY_MOVE_PLIES || (clock >= 4 && positions.repetitions(board.getKey(), clock) > 0);
+	}
+
+	/**
+	 * Method to check if a player has pieces other than king and pawns,
+	 * without which passing could be the best move (zugzwang).
+	 * @param color BLACK or WHITE
+	 * @return true if the player has a knight, bishop, rook or queen
+	 */
+	private boolean hasPieces(int color) {
+		int first = color * BitBoard.TYPES.length;
+		return (board.getOccupancy(color) & ~board.getPieces(first + BitBoard.PAWN)
+				& ~board.getPieces(first + BitBoard.KING)) != 0;
+	}
+
+	/**
+	 * Method to convert a score into the score kept in the table. Mate
+	 * scores count the plies from the root, in the table they count the
+	 * plies from the position so that they hold wherever it is reached.
+	 * @param score score of a position
+	 * @param ply distance of the position from the root
+	 * @return score to store
+	 */
+	private static int scoreToTable(int score, int ply) {
+		if (isMateScore(score)) {
+			return score > 0 ? score + ply : score - ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Method to convert a score read from the table back into a score
+	 * counting the mate plies from the root, see scoreToTable.
+	 * @param score score read from the table
+	 * @param ply distance of the position from the root
+	 * @return score of the position
+	 */
+	private static int scoreFromTable(int score, int ply) {
+		if (isMateScore(score)) {
+			return score > 0 ? score - ply : score + ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Method to learn from a quiet move which cut off: it becomes the first
+	 * killer move of the ply and its history score grows with the depth.
+	 * @param move quiet move
+	 * @param depth remaining plies of the node
+	 * @param ply distance of the node from the root
+	 */
+	private void recordCutOff(int move, int depth, int ply) {
+		int[] plyKillers = killers[ply];
+		if (plyKillers[0] != move) {
+			plyKillers[1] = plyKillers[0];
+			plyKillers[0] = move;
+		}
+
+		int[] scores = history[board.side()];
+		int index = Move.from(move) << 6 | Move.to(move);
+		scores[index] += depth * depth;
+		if (scores[index] > HISTORY_LIMIT) {
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] >>= 1;
+			}
+		}
+	}
+
+	/**
+	 * Method to check if a score is the score of a mate
+	 * @param score score of a position
+	 * @return true if a player gets mated
+	 */
+	public static boolean isMateScore(int score) {
+		return Math.abs(score) >= MATE - MAX_PLY;
+	}
+
+	/**
+	 * Getter for the number of positions visited by the last search
+	 * @return number of nodes
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Start point of a search from the command line. Usage:
+	 * <pre>java chess.Search [depth] [millis] [fen] [threads] [plain]</pre>
+	 * It searches the initial position, or the given FEN, up to depth
+	 * (6 if not given) within millis (no limit if not given), printing
+	 * every iteration and the best move. With more than one thread (1 if
+	 * not given) the threads share the table, see parallelSearch. With
+	 * plain the selective features are off, see SearchOptions.
+	 */
+	public static void main(String[] args) {
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+		long millis = args.length > 1 ? Long.parseLong(args[1]) : 0;
+		BitBoard board = args.length > 2 && !args[2].isEmpty() ? Fen.toBitBoard(args[2]) : BitBoard.initialPosition();
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		SearchOptions options = args.length > 4 && args[4].equals("plain") ? SearchOptions.none()
+				: new SearchOptions();
+
+		long start = System.nanoTime();
+		SearchResult result;
+		if (threads > 1) {
+			TranspositionTable table = new TranspositionTable(HASH_MEGA_BYTES, ReplacementPolicy.DEPTH_PREFERRED);
+			TimeManager clock = new TimeManager(SearchLimits.of(depth, millis), BitBoard.PLAYERS[board.side()]);
+			result = parallelSearch(board, depth, clock, table, threads, options, new KeyHistory());
+			System.out.println(result);
+		} else {
+			Search search = new Search(board);
+			search.setOutput(System.out);
+			search.setOptions(options);
+			result = search.search(depth, millis);
+		}
+		long elapsed = Math.max(1, (System.nanoTime() - start) / 1000000);
+		System.out.println("time " + elapsed + " nodes/s " + (result.nodes * 1000 / elapsed));
+		System.out.println("bestmove " + (result.move == Move.NONE ? "none" : Move.toString(result.move)));
+	}
+}
@@ -0,0 +1,132 @@
+package chess;
+
+/**
+ * Class keeping the limits of a search: a depth, a fixed time per move,
+ * the clock of a game (time left and increment of each player, moves until
+ * the next time control) and a number of nodes. A value of 0 or less means
+ * no limit, see TimeManager for how the clock is turned into a time budget.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class SearchLimits {
+
+	/**
+	 * Largest number of moves (plies) to look ahead.
+	 */
+	public int depth = Search.MAX_PLY - 1;
+
+	/**
+	 * Time to spend on the move in milli seconds, used instead of the clock.
+	 */
+	public long moveTime;
+
+	/**
+	 * Time left on the clock of white in milli seconds.
+	 */
+	public long whiteTime;
+
+	/**
+	 * Time left on the clock of black in milli seconds.
+	 */
+	public long blackTime;
+
+	/**
+	 * Time added to the clock of white after each of its moves, in milli seconds.
+	 */
+	public long whiteIncrement;
+
+	/**
+	 * Time added to the clock of black after each of its moves, in milli seconds.
+	 */
+	public long blackIncrement;
+
+	/**
+	 * Number of moves of the player to move until the next time control.
+	 */
+	public int movesToGo;
+
+	/**
+	 * Number of positions to visit, shared by all the threads of a search.
+	 */
+	public long nodes;
+
+	/**
+	 * Create the limits with no limit but the largest depth.
+	 */
+	public SearchLimits() {
+	}
+
+	/**
+	 * Method to create the limits of a search with a fixed time per move
+	 * @param depth largest number of moves (plies) to look ahead, at least 1
+	 * @param millis time to spend in milli seconds, 0 or less for no limit
+	 * @return new limits
+	 */
+	public static SearchLimits of(int depth, long millis) {
+		SearchLimits limits = new SearchLimits();
+		limits.depth = Math.max(1, Math.min(depth, Search.MAX_PLY - 1));
+		limits.moveTime = millis;
+		return limits;
+	}
+
+	/**
+	 * Method to read the limits from a command like
+	 * "go wtime 60000 btime 60000 winc 1000 binc 1000 movestogo 40". The
+	 * words are depth, movetime, wtime, btime, winc, binc, movestogo and
+	 * nodes, each followed by its value. The first word ("go") is skipped.
+	 * @param command
+	 * @return new limits
+	 * @throws IllegalArgumentException if a word is unknown or a value is not a number
+	 */
+	public static SearchLimits parse(String command) {
+		SearchLimits limits = new SearchLimits();
+		String tokens[] = command.trim().split("\\s+");
+		for (int i = 1; i < tokens.length; i += 2) {
+			if (i + 1 == tokens.length) {
+				throw new IllegalArgumentException("Missing value: " + tokens[i]);
+			}
+			long value = Long.parseLong(tokens[i + 1]);
+			switch (tokens[i]) {
+			case "depth":
+				limits.depth = (int) Math.max(1, Math.min(value, Search.MAX_PLY - 1));
+				break;
+			case "movetime":
+				limits.moveTime = value;
+				break;
+			case "wtime":
+				limits.whiteTime = value;
+				break;
+			case "btime":
+				limits.blackTime = value;
+				break;
+			case "winc":
+				limits.whiteIncrement = value;
+				break;
+			case "binc":
+				limits.blackIncrement = value;
+				break;
+			case "movestogo":
+				limits.movesToGo = (int) value;
+				break;
+			case "nodes":
+				limits.nodes = value;
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown limit: " + tokens[i]);
+			}
+		}
+		return limits;
+	}
+
+	/**
+	 * Method to check if a search with these limits ends on its own. Only
+	 * the clock of the player to move counts, since TimeManager ignores the
+	 * other one.
+	 * @param side player to move
+	 * @return true if the time, the nodes or the depth is bounded
+	 */
+	public boolean isBounded(Player side) {
+		long time = side == Player.White ? whiteTime : blackTime;
+		return moveTime > 0 || time > 0 || nodes > 0 || depth < Search.MAX_PLY - 1;
+	}
+}
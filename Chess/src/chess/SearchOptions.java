@@ -0,0 +1,60 @@
+package chess;
+
+/**
+ * Class keeping the selective features of the search, which search the
+ * moves likely to matter deeper and the other moves shallower or not at
+ * all. They let the search reach a larger depth in the same time, at the
+ * risk of missing a move now and then, so each can be turned off.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class SearchOptions {
+
+	/**
+	 * Null move pruning: the player to move passes, and if a reduced search
+	 * still scores above beta the node is cut off. It is skipped when the
+	 * player has only king and pawns, where passing may be the best move
+	 * (zugzwang).
+	 */
+	public boolean nullMovePruning = true;
+
+	/**
+	 * Late move reductions: the quiet moves ordered late are searched one
+	 * or two plies shallower, and searched again at full depth if they turn
+	 * out better than expected.
+	 */
+	public boolean lateMoveReductions = true;
+
+	/**
+	 * Futility pruning: near the leaves, a position whose static score is
+	 * far above beta is cut off, and quiet moves are skipped when the static
+	 * score is so far below alpha that only a capture could catch up.
+	 */
+	public boolean futilityPruning = true;
+
+	/**
+	 * Razoring: near the leaves, a position whose static score is far below
+	 * alpha is answered by the quiescence search if it stays below alpha.
+	 */
+	public boolean razoring = true;
+
+	/**
+	 * Create the options with every feature on.
+	 */
+	public SearchOptions() {
+	}
+
+	/**
+	 * Method to create the options with every feature off, i.e. a plain
+	 * alpha-beta search.
+	 * @return new options
+	 */
+	public static SearchOptions none() {
+		SearchOptions options = new SearchOptions();
+		options.nullMovePruning = false;
+		options.lateMoveReductions = false;
+		options.futilityPruning = false;
+		options.razoring = false;
+		return options;
+	}
+}
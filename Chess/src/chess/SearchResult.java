@@ -0,0 +1,63 @@
+package chess;
+
+/**
+ * Class keeping the outcome of a search: the best move found, its score
+ * and the line of play (principal variation) the search expects.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class SearchResult {
+
+	/**
+	 * Best move for the player to move, Move.NONE if there is no legal move.
+	 */
+	public final int move;
+
+	/**
+	 * Score of the best move in centipawns from the point of view of the
+	 * player to move, see Search.isMateScore for mate scores.
+	 */
+	public final int score;
+
+	/**
+	 * Depth of the last completed iteration.
+	 */
+	public final int depth;
+
+	/**
+	 * Number of positions visited by the search.
+	 */
+	public final long nodes;
+
+	/**
+	 * Expected line of play, starting with the best move.
+	 */
+	public final int[] pv;
+
+	/**
+	 * Method to create the result of a search
+	 * @param move
+	 * @param score
+	 * @param depth
+	 * @param nodes
+	 * @param pv
+	 */
+	public SearchResult(int move, int score, int depth, long nodes, int[] pv) {
+		this.move = move;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.pv = pv;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("depth ").append(depth).append(" score ").append(score).append(" nodes ").append(nodes)
+				.append(" pv");
+		for (int move : pv) {
+			sb.append(' ').append(Move.toString(move).replace(" ", ""));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,257 @@
+package chess;
+
+/**
+ * Class computing the attacks of the sliding pieces (Rook, Bishop and Queen)
+ * with magic bitboards. For every square the occupancy of the squares a
+ * slider could be blocked on is multiplied by a magic number, and the top
+ * bits of the product index a table of precomputed attack masks. Finding
+ * the attacks of a slider is then one multiply, one shift and one load.
+ * The magic numbers were found with a random search for the square
+ * numbering of BitBoard, the attack tables are filled once when the class
+ * is loaded.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+final class SlidingAttacks {
+
+	/**
+	 * Row shifts of the rook rays, paired with ROOK_COLS.
+	 */
+	private static final int[] ROOK_ROWS = { 1, -1, 0, 0 };
+
+	/**
+	 * Col shifts of the rook rays, paired with ROOK_ROWS.
+	 */
+	private static final int[] ROOK_COLS = { 0, 0, 1, -1 };
+
+	/**
+	 * Row shifts of the bishop rays, paired with BISHOP_COLS.
+	 */
+	private static final int[] BISHOP_ROWS = { 1, 1, -1, -1 };
+
+	/**
+	 * Col shifts of the bishop rays, paired with BISHOP_ROWS.
+	 */
+	private static final int[] BISHOP_COLS = { 1, -1, 1, -1 };
+
+	/**
+	 * Squares whose occupancy can block a rook, per square of the rook.
+	 */
+	private static final long[] ROOK_MASKS = new long[BitBoard.SQUARES];
+
+	/**
+	 * Magic multiplier of each rook square.
+	 */
+	private static final long[] ROOK_MAGICS = {
+			0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+			0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+			0x0400800040008021L, 0x0400400020005000L, 0x8240801000200080L, 0x8611001004200900L,
+			0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+			0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+			0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+			0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+			0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+			0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+			0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+			0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+			0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+			0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+			0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+			0x8044110480002441L, 0x2008110084402202L, 0x90806005090010C1L, 0x000420310A004A42L,
+			0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+	};
+
+	/**
+	 * Shift applied to the magic product of each rook square.
+	 */
+	private static final int[] ROOK_SHIFTS = new int[BitBoard.SQUARES];
+
+	/**
+	 * Start of the attack entries of each rook square in ROOK_TABLE.
+	 */
+	private static final int[] ROOK_OFFSETS = new int[BitBoard.SQUARES];
+
+	/**
+	 * Rook attack masks of all the squares, indexed by offset plus magic index.
+	 */
+	private static final long[] ROOK_TABLE;
+
+	/**
+	 * Squares whose occupancy can block a bishop, per square of the bishop.
+	 */
+	private static final long[] BISHOP_MASKS = new long[BitBoard.SQUARES];
+
+	/**
+	 * Magic multiplier of each bishop square.
+	 */
+	private static final long[] BISHOP_MAGICS = {
+			0x0045010808008680L, 0x2002080204004898L, 0x0210009A10400006L, 0x0824050200810200L,
+			0x0006061105004090L, 0x00010108C0000000L, 0x0814040282104004L, 0x0012012201106800L,
+			0x10823014100C1040L, 0x0080C2088802808CL, 0x0281108410404000L, 0x0101212041826200L,
+			0x0020141028221058L, 0x2201020202200202L, 0x000082A801482000L, 0x0000008401411044L,
+			0x0007103014300404L, 0x0002091110010100L, 0x42140012040C0808L, 0x0800808802004020L,
+			0x90C4004210140000L, 0x0800200900A01000L, 0x00D0400201108810L, 0x80820183814412A0L,
+			0x00A01008202202B4L, 0x01C2021A09500402L, 0x0084440208042400L, 0x800400400C090100L,
+			0xBA10040010802100L, 0xD182009006005000L, 0x5011021001009004L, 0x0020420200510400L,
+			0x0292104000468800L, 0x00043009091C0500L, 0x0280441000020025L, 0x0042820080080080L,
+			0x0440101010010040L, 0x1000900100808080L, 0x0108108120089800L, 0x0044010200012682L,
+			0xC002500420900400L, 0x0040482210710800L, 0x0002060024000200L, 0x0281020A44000800L,
+			0xA0021200A4000200L, 0x0001301000840840L, 0x2868500108444220L, 0x0004111041000200L,
+			0x8044020842080200L, 0x0000220104210200L, 0x0000021201044000L, 0x0000280884040028L,
+			0x4012114010858003L, 0x0000081004082B88L, 0x3892700508208002L, 0x00220A041B060400L,
+			0x0812020284014881L, 0x010434A282103100L, 0x0490400824020800L, 0x4A20002C00208800L,
+			0x000000A011020200L, 0x4002940A02482202L, 0x5100100202140406L, 0x02102000840540C1L
+	};
+
+	/**
+	 * Shift applied to the magic product of each bishop square.
+	 */
+	private static final int[] BISHOP_SHIFTS = new int[BitBoard.SQUARES];
+
+	/**
+	 * Start of the attack entries of each bishop square in BISHOP_TABLE.
+	 */
+	private static final int[] BISHOP_OFFSETS = new int[BitBoard.SQUARES];
+
+	/**
+	 * Bishop attack masks of all the squares, indexed by offset plus magic index.
+	 */
+	private static final long[] BISHOP_TABLE;
+
+	static {
+		ROOK_TABLE = build(ROOK_ROWS, ROOK_COLS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+		BISHOP_TABLE = build(BISHOP_ROWS, BISHOP_COLS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+	}
+
+	/**
+	 * No instances, only static tables.
+	 */
+	private SlidingAttacks() {
+	}
+
+	/**
+	 * Method to get the squares attacked by a rook
+	 * @param square square of the rook
+	 * @param occupied occupancy of the whole board
+	 * @return mask of the attacked squares, including the first blocker of each ray
+	 */
+	static long rookAttacks(int square, long occupied) {
+		int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+		return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+	}
+
+	/**
+	 * Method to get the squares attacked by a bishop
+	 * @param square square of the bishop
+	 * @param occupied occupancy of the whole board
+	 * @return mask of the attacked squares, including the first blocker of each ray
+	 */
+	static long bishopAttacks(int square, long occupied) {
+		int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+		return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+	}
+
+	/**
+	 * Method to get the squares attacked by a queen
+	 * @param square square of the queen
+	 * @param occupied occupancy of the whole board
+	 * @return mask of the attacked squares, including the first blocker of each ray
+	 */
+	static long queenAttacks(int square, long occupied) {
+		return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+	}
+
+	/**
+	 * Method to fill the masks, shifts and offsets of one kind of slider
+	 * and to build its attack table.
+	 * @param rows row shifts of the rays
+	 * @param cols col shifts of the rays
+	 * @param masks receives the blocker mask of each square
+	 * @param magics magic of each square
+	 * @param shifts receives the shift of each square
+	 * @param offsets receives the table offset of each square
+	 * @return the attack table
+	 */
+	private static long[] build(int[] rows, int[] cols, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+		int size = 0;
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			masks[square] = blockerMask(square, rows, cols);
+			int bits = Long.bitCount(masks[square]);
+			shifts[square] = BitBoard.SQUARES - bits;
+			offsets[square] = size;
+			size += 1 << bits;
+		}
+
+		long[] table = new long[size];
+		for (int square = 0; square < BitBoard.SQUARES; square++) {
+			// Enumerate every subset of the blocker mask (carry rippler).
+			long subset = 0;
+			do {
+				int index = (int) ((subset * magics[square]) >>> shifts[square]);
+				table[offsets[square] + index] = slowAttacks(square, subset, rows, cols);
+				subset = (subset - masks[square]) & masks[square];
+			} while (subset != 0);
+		}
+		return table;
+	}
+
+	/**
+	 * Method to get the squares which can block a slider, excluding the last
+	 * square of every ray since a piece there does not change the attacks.
+	 * @param square square of the slider
+	 * @param rows row shifts of the rays
+	 * @param cols col shifts of the rays
+	 * @return blocker mask
+	 */
+	private static long blockerMask(int square, int[] rows, int[] cols) {
+		long mask = 0;
+		for (int i = 0; i < rows.length; i++) {
+			int r = BitBoard.row(square) + rows[i];
+			int c = BitBoard.col(square) + cols[i];
+			while (isValid(r + rows[i], c + cols[i])) {
+				mask |= 1L << BitBoard.square(r, c);
+				r += rows[i];
+				c += cols[i];
+			}
+		}
+		return mask;
+	}
+
+	/**
+	 * Method to compute the attacks of a slider by walking its rays, used to
+	 * fill the tables.
+	 * @param square square of the slider
+	 * @param occupied occupancy of the board
+	 * @param rows row shifts of the rays
+	 * @param cols col shifts of the rays
+	 * @return mask of the attacked squares
+	 */
+	private static long slowAttacks(int square, long occupied, int[] rows, int[] cols) {
+		long attacks = 0;
+		for (int i = 0; i < rows.length; i++) {
+			int r = BitBoard.row(square) + rows[i];
+			int c = BitBoard.col(square) + cols[i];
+			while (isValid(r, c)) {
+				long bit = 1L << BitBoard.square(r, c);
+				attacks |= bit;
+				if ((occupied & bit) != 0) {
+					break;
+				}
+				r += rows[i];
+				c += cols[i];
+			}
+		}
+		return attacks;
+	}
+
+	/**
+	 * method to verify if a given pair of (row, col) is a valid
+	 * position on the board.
+	 * @param row
+	 * @param col
+	 * @return true if position is valid
+	 */
+	private static boolean isValid(int row, int col) {
+		return row >= 0 && row < BitBoard.SIDE && col >= 0 && col < BitBoard.SIDE;
+	}
+}
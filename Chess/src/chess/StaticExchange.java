@@ -0,0 +1,111 @@
+package chess;
+
+/**
+ * Class estimating the material won or lost by a capture once all the
+ * recaptures on its square are played out (static exchange evaluation).
+ * Both players recapture with their least valuable piece first, and each
+ * may stop capturing when going on would lose material. Sliders hidden
+ * behind a capturing piece join the exchange when it leaves the square.
+ * Nothing is moved on the board. An instance reuses one array for the
+ * gains of every exchange, so one instance must not be shared by threads.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class StaticExchange {
+
+	/**
+	 * Value of each piece type in the exchange, indexed by piece type ordinal.
+	 */
+	static final int[] VALUES = { 500, 300, 300, 900, 20000, 100 };
+
+	/**
+	 * Piece types from the least to the most valuable.
+	 */
+	private static final int[] ORDER = { BitBoard.PAWN, BitBoard.KNIGHT, BitBoard.BISHOP, BitBoard.ROOK,
+			BitBoard.QUEEN, BitBoard.KING };
+
+	/**
+	 * Material balance after each capture of the exchange, from the point of
+	 * view of the player making that capture. At most 32 pieces take part.
+	 */
+	private final int[] gains = new int[BitBoard.PIECE_CODES * 3];
+
+	/**
+	 * Method to evaluate the exchange started by a move
+	 * @param board position before the move
+	 * @param move encoded move, usually a capture
+	 * @return material won by the player to move in centipawns, negative if lost
+	 */
+	public int evaluate(BitBoard board, int move) {
+		if (Move.isCastle(move)) {
+			return 0;
+		}
+		int from = Move.from(move);
+		int to = Move.to(move);
+		int attacker = BitBoard.typeOf(board.pieceAt(from)).ordinal();
+		long occupied = board.getOccupied();
+
+		int captured = BitBoard.NO_PIECE;
+		if (Move.isEnPassant(move)) {
+			captured = BitBoard.PAWN;
+			occupied ^= 1L << BitBoard.enPassantVictim(move);
+		} else if (board.isOccupied(to)) {
+			captured = BitBoard.typeOf(board.pieceAt(to)).ordinal();
+		}
+
+		int depth = 0;
+		gains[0] = captured == BitBoard.NO_PIECE ? 0 : VALUES[captured];
+		if (Move.isPromotion(move)) {
+			attacker = Move.promotionType(move).ordinal();
+			gains[0] += VALUES[attacker] - VALUES[BitBoard.PAWN];
+		}
+
+		long diagonal = board.getPieces(PieceType.B, Player.White) | board.getPieces(PieceType.B, Player.Black)
+				| board.getPieces(PieceType.Q, Player.White) | board.getPieces(PieceType.Q, Player.Black);
+		long straight = board.getPieces(PieceType.R, Player.White) | board.getPieces(PieceType.R, Player.Black)
+				| board.getPieces(PieceType.Q, Player.White) | board.getPieces(PieceType.Q, Player.Black);
+		long attackers = board.attackersTo(to, BitBoard.WHITE, occupied)
+				| board.attackersTo(to, BitBoard.BLACK, occupied);
+		long fromBit = 1L << from;
+		int side = board.side();
+
+		while (fromBit != 0) {
+			depth++;
+			// Balance if the piece which just captured is captured in turn.
+			gains[depth] = VALUES[attacker] - gains[depth - 1];
+			if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+				// Neither player gains by going on.
+				break;
+			}
+
+			occupied ^= fromBit;
+			attackers &= ~fromBit;
+			attackers |= (SlidingAttacks.bishopAttacks(to, occupied) & diagonal)
+					| (SlidingAttacks.rookAttacks(to, occupied) & straight);
+			attackers &= occupied;
+
+			side ^= 1;
+			fromBit = 0;
+			long own = attackers & board.getOccupancy(side);
+			for (int type : ORDER) {
+				long candidates = own & board.getPieces(side * BitBoard.TYPES.length + type);
+				if (candidates != 0) {
+					// The king can not capture a piece which is still defended.
+					if (type == BitBoard.KING && (attackers & board.getOccupancy(side ^ 1)) != 0) {
+						break;
+					}
+					fromBit = candidates & -candidates;
+					attacker = type;
+					break;
+				}
+			}
+		}
+
+		// The last balance assumes a capture which nobody could make, drop it
+		// and let every player choose between capturing and stopping.
+		while (--depth > 0) {
+			gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+		}
+		return gains[0];
+	}
+}
@@ -0,0 +1,46 @@
+package chess;
+
+/**
+ * Enum representing the state of a game: still running, or the way it
+ * ended.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public enum Termination {
+	/**
+	 * The game goes on.
+	 */
+	NONE,
+
+	/**
+	 * The player to move is in check and has no legal move, the other
+	 * player wins.
+	 */
+	CHECKMATE,
+
+	/**
+	 * The player to move is not in check and has no legal move, a draw.
+	 */
+	STALEMATE,
+
+	/**
+	 * The same position came for the third time, a draw.
+	 */
+	THREEFOLD_REPETITION,
+
+	/**
+	 * Fifty moves of each player went by without a capture or a pawn
+	 * move, a draw.
+	 */
+	FIFTY_MOVE_RULE,
+
+	/**
+	 * A player resigned, the other player wins.
+	 */
+	RESIGNATION,
+
+	/**
+	 * The players agreed to a draw.
+	 */
+	DRAW_AGREED;
+}
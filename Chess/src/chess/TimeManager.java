@@ -0,0 +1,154 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class deciding when a search stops. The limits are turned into two
+ * deadlines: after the soft deadline no new iteration is started, since it
+ * would likely not complete, and at the hard deadline the running iteration
+ * is dropped. With a fixed time per move both deadlines are that time. With
+ * a clock the budget is the time left shared by the moves until the next
+ * time control (30 if not known) plus most of the increment, and the hard
+ * deadline allows a few times the budget for iterations which take longer,
+ * but never more than half the time left. A margin is kept for answering.
+ * The node limit counts the nodes of all the threads of a search, and the
+ * stop flag can be set from any thread. The searching threads only come
+ * here once every few thousand nodes, so all of these checks are cheap.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class TimeManager {
+
+	/**
+	 * Time kept on the clock for answering the move, in milli seconds.
+	 */
+	static final long MOVE_OVERHEAD = 20;
+
+	/**
+	 * Number of moves the time left is shared by when moves to go is not known.
+	 */
+	static final int DEFAULT_MOVES_TO_GO = 30;
+
+	/**
+	 * Factor of the budget allowed before the hard deadline.
+	 */
+	private static final int HARD_FACTOR = 4;
+
+	/**
+	 * Value of System.nanoTime() when the search started.
+	 */
+	private final long start;
+
+	/**
+	 * Value of System.nanoTime() after which no iteration is started,
+	 * Long.MAX_VALUE for no limit.
+	 */
+	private final long softDeadline;
+
+	/**
+	 * Value of System.nanoTime() at which the search stops, Long.MAX_VALUE
+	 * for no limit.
+	 */
+	private final long hardDeadline;
+
+	/**
+	 * Number of nodes at which the search stops, Long.MAX_VALUE for no limit.
+	 */
+	private final long nodeLimit;
+
+	/**
+	 * Nodes searched by all the threads, counted at every check.
+	 */
+	private final AtomicLong nodes = new AtomicLong();
+
+	/**
+	 * Flag set by any thread to stop the search.
+	 */
+	private volatile boolean stopped;
+
+	/**
+	 * Create the deadlines of a search starting now
+	 * @param limits limits of the search
+	 * @param side player to move, whose clock counts
+	 */
+	public TimeManager(SearchLimits limits, Player side) {
+		this.start = System.nanoTime();
+		long soft = 0;
+		long hard = 0;
+		long time = side == Player.White ? limits.whiteTime : limits.blackTime;
+		long increment = side == Player.White ? limits.whiteIncrement : limits.blackIncrement;
+		if (limits.moveTime > 0) {
+			soft = limits.moveTime;
+			hard = limits.moveTime;
+		} else if (time > 0) {
+			long available = Math.max(1, time - MOVE_OVERHEAD);
+			int movesToGo = limits.movesToGo > 0 ? limits.movesToGo : DEFAULT_MOVES_TO_GO;
+			soft = Math.min(available, available / movesToGo + Math.max(0, increment) * 3 / 4);
+			// On the last move before the time control all of it may be used.
+			hard = movesToGo == 1 ? available : Math.max(soft, Math.min(soft * HARD_FACTOR, available / 2));
+		}
+		this.softDeadline = soft > 0 ? start + soft * 1000000 : Long.MAX_VALUE;
+		this.hardDeadline = hard > 0 ? start + hard * 1000000 : Long.MAX_VALUE;
+		this.nodeLimit = limits.nodes > 0 ? limits.nodes : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Method to count the nodes searched since the last check and to check
+	 * if the search must stop
+	 * @param searched nodes searched by the calling thread since its last check
+	 * @return true if the search is stopped, the hard deadline is past or
+	 * the node limit is reached
+	 */
+	boolean check(int searched) {
+		return nodes.addAndGet(searched) >= nodeLimit || stopped || System.nanoTime() > hardDeadline;
+	}
+
+	/**
+	 * Method to check if there is time to start another iteration
+	 * @return false if the search is stopped, the soft deadline is past or
+	 * the node limit is reached
+	 */
+	boolean canStartIteration() {
+		return !stopped && nodes.get() < nodeLimit && System.nanoTime() < softDeadline;
+	}
+
+	/**
+	 * Method to stop the search from any thread. The search returns the
+	 * result of its last completed iteration.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	/**
+	 * Method to check if the search was stopped with stop()
+	 * @return true if stopped
+	 */
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Getter for the time since the search started
+	 * @return elapsed time in milli seconds
+	 */
+	public long getElapsed() {
+		return (System.nanoTime() - start) / 1000000;
+	}
+
+	/**
+	 * Getter for the time after which no iteration is started
+	 * @return milli seconds from the start, Long.MAX_VALUE for no limit
+	 */
+	public long getSoftLimit() {
+		return softDeadline == Long.MAX_VALUE ? Long.MAX_VALUE : (softDeadline - start) / 1000000;
+	}
+
+	/**
+	 * Getter for the time at which the search stops
+	 * @return milli seconds from the start, Long.MAX_VALUE for no limit
+	 */
+	public long getHardLimit() {
+		return hardDeadline == Long.MAX_VALUE ? Long.MAX_VALUE : (hardDeadline - start) / 1000000;
+	}
+}
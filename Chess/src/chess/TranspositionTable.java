@@ -0,0 +1,173 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Class caching the results of the positions already searched, so that a
+ * position reached again by another move order (transposition) is not
+ * searched from scratch. Every entry keeps the best move, the score, the
+ * depth searched and whether the score is exact or a bound.
+ * Entries are kept in a single long array without any lock, so threads
+ * searching in parallel can share one table: every entry holds the position
+ * key xored with its data, and the data. A reader recomputes the key from
+ * both words, so an entry half written by another thread never matches and
+ * is simply a miss.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+public class TranspositionTable {
+
+	/**
+	 * Value returned by probe when the position is not in the table.
+	 */
+	public static final long MISS = 0L;
+
+	/**
+	 * Bound of a score which is at least the real score (the search failed low).
+	 */
+	public static final int UPPER = 1;
+
+	/**
+	 * Bound of a score which is at most the real score (the search failed high).
+	 */
+	public static final int LOWER = 2;
+
+	/**
+	 * Bound of an exact score.
+	 */
+	public static final int EXACT = 3;
+
+	/**
+	 * Two longs per entry: key xor data, then data. Data keeps the move in
+	 * bits 0-15, the score in bits 16-31, the depth in bits 32-39, the bound
+	 * in bits 40-41 and the search generation in bits 42-49. The bound is
+	 * never 0, so data of a stored entry is never MISS.
+	 */
+	private final long[] entries;
+
+	/**
+	 * Mask selecting the entry index from a key.
+	 */
+	private final int mask;
+
+	/**
+	 * Policy deciding which entry a slot keeps.
+	 */
+	private final ReplacementPolicy policy;
+
+	/**
+	 * Generation of the running search, telling the entries stored by
+	 * earlier searches apart.
+	 */
+	private volatile int generation;
+
+	/**
+	 * Create a table using about the given amount of memory.
+	 * @param megaBytes memory to use, rounded down to a power of two entries
+	 * @param policy policy deciding which entry a slot keeps
+	 */
+	public TranspositionTable(int megaBytes, ReplacementPolicy policy) {
+		long bytes = Math.max(1, megaBytes) * 1024L * 1024L;
+		int size = Integer.highestOneBit((int) Math.min(bytes / 16, 1 << 30));
+		entries = new long[size * 2];
+		mask = size - 1;
+		this.policy = policy;
+	}
+
+	/**
+	 * Method to tell the table a new search starts, so that the entries of
+	 * the previous searches can be replaced first.
+	 */
+	public void newSearch() {
+		generation = (generation + 1) & 0xFF;
+	}
+
+	/**
+	 * Method to remove all the entries.
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0L);
+	}
+
+	/**
+	 * Method to look up a position
+	 * @param key Zobrist key of the position
+	 * @return data of the entry, to read with the static getters, MISS if none
+	 */
+	public long probe(long key) {
+		int index = ((int) key & mask) << 1;
+		long data = entries[index + 1];
+		if ((entries[index] ^ data) == key) {
+			return data;
+		}
+		return MISS;
+	}
+
+	/**
+	 * Method to store the result of a position, if the replacement policy
+	 * lets it replace the entry in its slot
+	 * @param key Zobrist key of the position
+	 * @param move best move found, Move.NONE if none
+	 * @param score score of the position
+	 * @param depth depth searched
+	 * @param bound UPPER, LOWER or EXACT
+	 */
+	public void store(long key, int move, int score, int depth, int bound) {
+		int index = ((int) key & mask) << 1;
+		if (policy == ReplacementPolicy.DEPTH_PREFERRED) {
+			long old = entries[index + 1];
+			if ((entries[index] ^ old) != key && generation(old) == generation && depth(old) > depth) {
+				return;
+			}
+		}
+		long data = (move & 0xFFFFL) | ((score & 0xFFFFL) << 16) | ((long) depth << 32) | ((long) bound << 40)
+				| ((long) generation << 42);
+		entries[index] = key ^ data;
+		entries[index + 1] = data;
+	}
+
+	/**
+	 * Getter for the best move of an entry
+	 * @param data data returned by probe
+	 * @return encoded move, Move.NONE if none
+	 */
+	public static int move(long data) {
+		return (int) (data & 0xFFFF);
+	}
+
+	/**
+	 * Getter for the score of an entry
+	 * @param data data returned by probe
+	 * @return score
+	 */
+	public static int score(long data) {
+		return (short) (data >>> 16);
+	}
+
+	/**
+	 * Getter for the depth of an entry
+	 * @param data data returned by probe
+	 * @return depth searched
+	 */
+	public static int depth(long data) {
+		return (int) (data >>> 32) & 0xFF;
+	}
+
+	/**
+	 * Getter for the bound of an entry
+	 * @param data data returned by probe
+	 * @return UPPER, LOWER or EXACT
+	 */
+	public static int bound(long data) {
+		return (int) (data >>> 40) & 3;
+	}
+
+	/**
+	 * Getter for the search generation of an entry
+	 * @param data data returned by probe
+	 * @return generation
+	 */
+	private static int generation(long data) {
+		return (int) (data >>> 42) & 0xFF;
+	}
+}
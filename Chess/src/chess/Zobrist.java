@@ -0,0 +1,80 @@
+package chess;
+
+/**
+ * Class holding the random keys used to hash a BitBoard position (Zobrist
+ * hashing). The key of a position is the xor of the keys of every piece on
+ * its square, of the castling rights, of the en passant file and of the side
+ * to move when black moves. Since xor is its own inverse, a move changes the
+ * key by xoring only the keys of what the move changed. The keys come from a
+ * fixed seed so a position has the same key in every run.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+final class Zobrist {
+
+	/**
+	 * Key of each piece code on each square.
+	 */
+	static final long[][] PIECE_SQUARE = new long[BitBoard.PIECE_CODES][BitBoard.SQUARES];
+
+	/**
+	 * Key of each combination of the castling rights, 0 for no rights.
+	 */
+	static final long[] CASTLING = new long[BitBoard.ALL_CASTLING + 1];
+
+	/**
+	 * Key of the en passant square of each col.
+	 */
+	static final long[] EN_PASSANT_FILE = new long[BitBoard.SIDE];
+
+	/**
+	 * Key xored in when black is to move.
+	 */
+	static final long BLACK_TO_MOVE;
+
+	/**
+	 * State of the generator filling the keys.
+	 */
+	private static long seed = 0x9E3779B97F4A7C15L;
+
+	static {
+		for (long[] keys : PIECE_SQUARE) {
+			for (int square = 0; square < keys.length; square++) {
+				keys[square] = nextRandom();
+			}
+		}
+		for (int rights = 1; rights < CASTLING.length; rights++) {
+			CASTLING[rights] = nextRandom();
+		}
+		for (int col = 0; col < EN_PASSANT_FILE.length; col++) {
+			EN_PASSANT_FILE[col] = nextRandom();
+		}
+		BLACK_TO_MOVE = nextRandom();
+	}
+
+	/**
+	 * No instances, only static keys.
+	 */
+	private Zobrist() {
+	}
+
+	/**
+	 * Method to get the key of an en passant square
+	 * @param square en passant square or NO_SQUARE
+	 * @return key of the col of the square, 0 for NO_SQUARE
+	 */
+	static long enPassant(int square) {
+		return square == BitBoard.NO_SQUARE ? 0L : EN_PASSANT_FILE[BitBoard.col(square)];
+	}
+
+	/**
+	 * Method to get the next number of a splitmix generator
+	 * @return pseudo random 64 bit number
+	 */
+	private static long nextRandom() {
+		long z = (seed += 0x9E3779B97F4A7C15L);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,34 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the construction of a ChessBoard in the initial position,
+ * the cost paid on every new game.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BoardConstructionBenchmark {
+
+	/**
+	 * Benchmark of the construction of a board.
+	 * @return the new board
+	 */
+	@Benchmark
+	public ChessBoard construct() {
+		return new ChessBoard();
+	}
+}
@@ -0,0 +1,128 @@
+package chess;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Class to benchmark the ChessBoard queries the game runs on every command.
+ * The positions are an opening, a middlegame and an endgame, each reached
+ * by replaying its moves on a new ChessBoard so the board carries the same
+ * history as a real game. Making a move and building a board are in
+ * MakeMoveBenchmark and BoardConstructionBenchmark.
+ * Run with "-prof gc" to get the allocation rate next to the ops/sec.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChessBoardBenchmark {
+
+	/**
+	 * Ruy Lopez after 3... a6, white to move.
+	 */
+	static final String OPENING = "e2 e4, e7 e5, g1 f3, b8 c6, f1 b5, a7 a6";
+
+	/**
+	 * Italian game, Moller attack after both sides castled, white to move.
+	 */
+	static final String MIDDLEGAME = "e2 e4, e7 e5, g1 f3, b8 c6, f1 c4, f8 c5, c2 c3, g8 f6, d2 d4, e5 d4, "
+			+ "c3 d4, c5 b4, b1 c3, f6 e4, e1 g1, b4 c3, d4 d5, c3 f6, f1 e1, c6 e7, e1 e4, d7 d6, "
+			+ "c1 g5, f6 g5, f3 g5, e8 g8";
+
+	/**
+	 * Ten pieces left on the board, black to move.
+	 */
+	static final String ENDGAME = "g2 g4, a7 a6, f2 f3, c7 c6, h2 h3, e7 e6, h3 h4, d8 h4, h1 h4, b7 b5, "
+			+ "h4 h7, f7 f5, b2 b4, f8 b4, g4 f5, h8 h7, f5 e6, d7 e6, c1 a3, b4 a3, b1 a3, h7 h8, "
+			+ "a3 b5, a6 a5, b5 a7, a8 a7, c2 c3, g7 g6, g1 h3, h8 h3, f1 h3, e8 d8, h3 e6, a5 a4, "
+			+ "e6 c8, d8 c8, d1 a4, a7 a8, a4 c6, b8 c6, d2 d4, c6 d4, c3 d4";
+
+	/**
+	 * Name of the position benchmarked.
+	 */
+	@Param({ "opening", "middlegame", "endgame" })
+	public String position;
+
+	/**
+	 * Board in the benchmarked position.
+	 */
+	private ChessBoard board;
+
+	/**
+	 * Method to build the benchmarked position once per trial.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		board = replay(moves(position));
+	}
+
+	/**
+	 * Benchmark of the checkmate and stalemate detection.
+	 * @return true if the game is over
+	 */
+	@Benchmark
+	public boolean hasGameFinalized() {
+		return board.hasGameFinalized();
+	}
+
+	/**
+	 * Method to get the moves reaching a position of the suite
+	 * @param name opening, middlegame or endgame
+	 * @return the moves in the command line format
+	 */
+	static String[] moves(String name) {
+		if (name.equals("opening")) {
+			return OPENING.split(",\\s*");
+		} else if (name.equals("middlegame")) {
+			return MIDDLEGAME.split(",\\s*");
+		} else if (name.equals("endgame")) {
+			return ENDGAME.split(",\\s*");
+		}
+		throw new IllegalArgumentException("Unknown position " + name);
+	}
+
+	/**
+	 * Method to play moves on a new board. The board prints on check, so the
+	 * output is dropped while replaying.
+	 * @param history moves in the command line format
+	 * @return the board after the moves
+	 */
+	static ChessBoard replay(String[] history) {
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+		}));
+		try {
+			ChessBoard board = new ChessBoard();
+			for (String move : history) {
+				if (!board.makeMove(move)) {
+					throw new IllegalStateException("Illegal move " + move);
+				}
+				board.togglePlayer();
+			}
+			return board;
+		} finally {
+			System.setOut(out);
+		}
+	}
+}
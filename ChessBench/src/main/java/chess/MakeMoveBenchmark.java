@@ -0,0 +1,92 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Class to benchmark a full move (parsing, validation and the move itself)
+ * in the positions of ChessBoardBenchmark. A move can be made only once on
+ * a board, so every call first restores the position from its compact form
+ * (see CompactPosition), and restore times the restore alone so that it can
+ * be taken off the time and allocation of makeMove. The restored board
+ * does not keep the earlier positions of the game.
+ * @author Dev Patel and Eric Chan
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MakeMoveBenchmark {
+
+	/**
+	 * Name of the position benchmarked.
+	 */
+	@Param({ "opening", "middlegame", "endgame" })
+	public String position;
+
+	/**
+	 * Legal move of the player to move.
+	 */
+	private String move;
+
+	/**
+	 * Benchmarked position in the compact form.
+	 */
+	private byte[] compact;
+
+	/**
+	 * Method to build the benchmarked position once per trial.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		compact = ChessBoardBenchmark.replay(ChessBoardBenchmark.moves(position)).toCompact();
+		move = nextMove(position);
+	}
+
+	/**
+	 * Benchmark of the restore of the position, to take off makeMove.
+	 * @return the restored board
+	 */
+	@Benchmark
+	public ChessBoard restore() {
+		return new ChessBoard(compact);
+	}
+
+	/**
+	 * Benchmark of a full move on a restored board.
+	 * @return true if the move was made
+	 */
+	@Benchmark
+	public boolean makeMove() {
+		return new ChessBoard(compact).makeMove(move);
+	}
+
+	/**
+	 * Method to get a legal move of the player to move in a position of the suite
+	 * @param name opening, middlegame or endgame
+	 * @return the move in the command line format
+	 */
+	static String nextMove(String name) {
+		if (name.equals("opening")) {
+			return "b5 a4";
+		} else if (name.equals("middlegame")) {
+			return "d1 h5";
+		}
+		return "g8 f6";
+	}
+}